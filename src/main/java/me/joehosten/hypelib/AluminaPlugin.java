@@ -30,19 +30,29 @@ import com.google.common.collect.Lists;
 import lombok.Getter;
 import me.joehosten.Sentinel.Sentinel;
 import me.joehosten.Sentinel.builder.SentinelBuilder;
+import me.joehosten.hypelib.config.ConfigWatcher;
 import me.joehosten.hypelib.event.Events;
+import me.joehosten.hypelib.menu.ClickQueue;
 import me.joehosten.hypelib.menu.listener.MenuListener;
+import me.joehosten.hypelib.permission.PermissionCache;
 import me.joehosten.hypelib.util.FileLoader;
+import me.joehosten.hypelib.util.OnlinePlayerIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.Server;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandMap;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -53,6 +63,10 @@ public abstract class AluminaPlugin extends JavaPlugin {
 
     private static AluminaPlugin instance;
 
+    private static MethodHandle commandMapHandle;
+    private static MethodHandle knownCommandsHandle;
+    private static MethodHandle syncCommandsHandle;
+
     /**
      * This method is called when the plugin is initially loaded.
      */
@@ -68,22 +82,67 @@ public abstract class AluminaPlugin extends JavaPlugin {
      */
     public abstract void disable();
 
+    /**
+     * This method is used to register a command, alongside the shortcuts of its subcommands.
+     * @param command The command to register.
+     */
     public void registerCommand(@NotNull me.joehosten.hypelib.command.Command command) {
         Preconditions.checkNotNull(command, "Command cannot be null!");
 
+        registerCommands(List.of(command));
+    }
+
+    /**
+     * This method is used to register multiple commands in a single pass.
+     * @param commands The commands to register.
+     */
+    public void registerCommands(@NotNull me.joehosten.hypelib.command.Command... commands) {
+        Preconditions.checkNotNull(commands, "Commands cannot be null!");
+
+        registerCommands(Arrays.asList(commands));
+    }
+
+    /**
+     * This method is used to register multiple commands in a single pass.
+     * The command map is resolved once, and the command tree is only synced to online players once every command has been registered.
+     * @param commands The commands to register.
+     */
+    public void registerCommands(@NotNull Collection<? extends me.joehosten.hypelib.command.Command> commands) {
+        Preconditions.checkNotNull(commands, "Commands cannot be null!");
+        if (commands.isEmpty()) return;
+
         CommandMap commandMap = initCommandMap();
         if (commandMap == null) return;
 
+        Map<String, Command> knownCommands = getKnownCommands(commandMap);
+
+        for (me.joehosten.hypelib.command.Command command : commands) {
+            Preconditions.checkNotNull(command, "Command cannot be null!");
+
+            register(command, commandMap, knownCommands);
+        }
+
+        syncCommands();
+    }
+
+    /**
+     * This method is used to register a command and the shortcuts of its subcommands to the command map.
+     * @param command The command to register.
+     * @param commandMap The command map.
+     * @param knownCommands The known commands of the command map, or null if they could not be retrieved.
+     */
+    private void register(@NotNull me.joehosten.hypelib.command.Command command, @NotNull CommandMap commandMap, @Nullable Map<String, Command> knownCommands) {
         String name = command.getName();
 
         Command existing = commandMap.getCommand(name);
         if (existing != null) {
-            cleanse(name, existing, commandMap);
+            cleanse(name, existing, commandMap, knownCommands);
         }
 
         commandMap.register(getName(), command);
 
-        List<me.joehosten.hypelib.command.Command> sub = getRecursiveSubCommand(command);
+        List<me.joehosten.hypelib.command.Command> sub = Lists.newArrayList();
+        collectSubCommands(command, sub);
         if (sub.isEmpty()) return;
 
         for (me.joehosten.hypelib.command.Command cmd : sub) {
@@ -93,7 +152,7 @@ public abstract class AluminaPlugin extends JavaPlugin {
             for (String shortcut : shortcuts) {
                 Command existingShortcut = commandMap.getCommand(shortcut);
                 if (existingShortcut != null) {
-                    cleanse(shortcut, existingShortcut, commandMap);
+                    cleanse(shortcut, existingShortcut, commandMap, knownCommands);
                 }
 
                 commandMap.register(shortcut, getName(), cmd);
@@ -102,25 +161,17 @@ public abstract class AluminaPlugin extends JavaPlugin {
     }
 
     /**
-     * This method is used to get all subcommands of a command.
+     * This method is used to collect all subcommands of a command, at every depth.
      * @param parent The parent command.
-     * @return A list of all subcommands.
+     * @param list The list to add the subcommands to.
      */
-    private List<me.joehosten.hypelib.command.Command> getRecursiveSubCommand(@NotNull me.joehosten.hypelib.command.Command parent) {
+    private void collectSubCommands(@NotNull me.joehosten.hypelib.command.Command parent, @NotNull List<me.joehosten.hypelib.command.Command> list) {
         Preconditions.checkNotNull(parent, "Parent command cannot be null!");
 
-        // Recursively get all subcommands of all subcommands.
-        List<me.joehosten.hypelib.command.Command> list = Lists.newArrayList(parent.getSubCommands());
-
         for (me.joehosten.hypelib.command.Command subCommand : parent.getSubCommands()) {
-            List<me.joehosten.hypelib.command.Command> recursiveSubCommands = getRecursiveSubCommand(subCommand);
-            if (recursiveSubCommands.isEmpty())
-                break;
-
-            list.addAll(recursiveSubCommands);
+            list.add(subCommand);
+            collectSubCommands(subCommand, list);
         }
-
-        return list;
     }
 
     /**
@@ -128,23 +179,18 @@ public abstract class AluminaPlugin extends JavaPlugin {
      * @param name The name of the command.
      * @param existing The existing command.
      * @param commandMap The command map.
+     * @param knownCommands The known commands of the command map, or null if they could not be retrieved.
      */
-    private void cleanse(@NotNull String name, @NotNull Command existing, @NotNull CommandMap commandMap) {
+    private void cleanse(@NotNull String name, @NotNull Command existing, @NotNull CommandMap commandMap, @Nullable Map<String, Command> knownCommands) {
         Preconditions.checkNotNull(name, "Command name cannot be null!");
         Preconditions.checkNotNull(existing, "Existing command cannot be null!");
         Preconditions.checkNotNull(commandMap, "Command map cannot be null!");
 
-        Map<String, Command> map;
-        try {
-            map = (Map<String, Command>) commandMap.getClass().getDeclaredMethod("getKnownCommands").invoke(commandMap);
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            getLogger().severe("Could not retrieve the command map. (Illegal Access, Invocation Target, No Such Method)");
-            return;
-        }
+        if (knownCommands == null) return;
 
         existing.unregister(commandMap);
-        map.remove(name);
-        existing.getAliases().forEach(map::remove);
+        knownCommands.remove(name);
+        existing.getAliases().forEach(knownCommands::remove);
     }
 
     /**
@@ -153,25 +199,84 @@ public abstract class AluminaPlugin extends JavaPlugin {
      */
     private CommandMap initCommandMap() {
         Server server = Bukkit.getServer();
-        Field field;
+        if (!resolveHandles(server)) return null;
+
         try {
-            field = server.getClass().getDeclaredField("commandMap");
-        } catch (NoSuchFieldException e) {
-            getLogger().severe("Could not retrieve the command map. (No Such Field)");
+            return (CommandMap) commandMapHandle.invoke(server);
+        } catch (Throwable e) {
+            getLogger().severe("Could not retrieve the command map. (" + e.getClass().getSimpleName() + ")");
             return null;
         }
+    }
 
-        field.setAccessible(true);
+    /**
+     * This method is used to retrieve the known commands of the command map.
+     * @param commandMap The command map.
+     * @return The known commands, or null if they could not be retrieved.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Map<String, Command> getKnownCommands(@NotNull CommandMap commandMap) {
+        try {
+            if (knownCommandsHandle == null) {
+                Method method = commandMap.getClass().getMethod("getKnownCommands");
+                knownCommandsHandle = MethodHandles.lookup().unreflect(method);
+            }
 
-        CommandMap commandMap;
+            return (Map<String, Command>) knownCommandsHandle.invoke(commandMap);
+        } catch (Throwable e) {
+            getLogger().severe("Could not retrieve the known commands. (" + e.getClass().getSimpleName() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * This method is used to sync the command tree to every online player once.
+     */
+    private void syncCommands() {
+        if (Bukkit.getOnlinePlayers().isEmpty()) return;
+
+        if (syncCommandsHandle != null) {
+            try {
+                syncCommandsHandle.invoke(Bukkit.getServer());
+                return;
+            } catch (Throwable e) {
+                getLogger().warning("Could not sync the command tree, updating players individually. (" + e.getClass().getSimpleName() + ")");
+            }
+        }
+
+        Bukkit.getOnlinePlayers().forEach(Player::updateCommands);
+    }
+
+    /**
+     * This method is used to resolve the reflective handles into the server, once.
+     * @param server The server.
+     * @return Whether the command map handle is available.
+     */
+    private boolean resolveHandles(@NotNull Server server) {
+        if (commandMapHandle != null) return true;
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         try {
-            commandMap = (CommandMap) field.get(server);
+            Field field = server.getClass().getDeclaredField("commandMap");
+            field.setAccessible(true);
+
+            commandMapHandle = lookup.unreflectGetter(field);
+        } catch (NoSuchFieldException e) {
+            getLogger().severe("Could not retrieve the command map. (No Such Field)");
+            return false;
         } catch (IllegalAccessException e) {
             getLogger().severe("Could not retrieve the command map. (Illegal Access)");
-            return null;
+            return false;
         }
 
-        return commandMap;
+        try {
+            syncCommandsHandle = lookup.unreflect(server.getClass().getMethod("syncCommands"));
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+            // Older servers do not expose a sync, players are updated individually instead.
+        }
+
+        return true;
     }
 
     /**
@@ -214,6 +319,9 @@ public abstract class AluminaPlugin extends JavaPlugin {
     @Override
     public void onEnable() {
         new MenuListener();
+        OnlinePlayerIndex.register();
+        PermissionCache.register();
+        ClickQueue.register();
 
         enable();
     }
@@ -221,6 +329,8 @@ public abstract class AluminaPlugin extends JavaPlugin {
     @Override
     public void onDisable() {
         disable();
+
+        ConfigWatcher.shutdown();
     }
 
     public static AluminaPlugin getAluminaInstance() {
@@ -28,20 +28,24 @@ package me.joehosten.hypelib.command;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import me.joehosten.hypelib.command.annotation.CommandInfo;
+import me.joehosten.hypelib.command.annotation.CommandMetadata;
 import me.joehosten.hypelib.command.builder.CommandBuilder;
 import me.joehosten.hypelib.command.task.AsyncCommandRunner;
 import me.joehosten.hypelib.logger.Logs;
 import me.joehosten.hypelib.message.Message;
+import me.joehosten.hypelib.permission.PermissionCache;
 import me.joehosten.hypelib.util.MathUtil;
 import me.joehosten.hypelib.util.TabCompleteUtil;
 import me.joehosten.hypelib.util.Tasks;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.Permission;
+import org.bukkit.plugin.PluginManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -84,6 +88,10 @@ public abstract class Command extends org.bukkit.command.Command {
     private final boolean consoleOnly;
     private final boolean smartTabComplete;
     private final boolean async;
+    private final CommandMetadata metadata;
+
+    @Getter(AccessLevel.NONE)
+    private volatile Dispatch dispatch;
 
     private Command parent;
 
@@ -96,29 +104,28 @@ public abstract class Command extends org.bukkit.command.Command {
 
         this.parent = parent;
 
-        CommandInfo annotation = getClass().getDeclaredAnnotation(CommandInfo.class);
-        Preconditions.checkNotNull(annotation, "If using empty constructor, class must have @CommandInfo annotation");
+        CommandMetadata metadata = CommandMetadata.of(getClass());
+        Preconditions.checkNotNull(metadata, "If using empty constructor, class must have @CommandInfo annotation");
+
+        this.metadata = metadata;
 
-        setName(annotation.name());
-        setAliases(Arrays.asList(annotation.aliases()));
-        setDescription(annotation.description());
+        setName(metadata.name());
+        setAliases(Lists.newArrayList(metadata.aliases()));
+        setDescription(metadata.description());
 
         this.subCommands = Lists.newArrayList();
 
-        setPermission((annotation.permission().isBlank()) ? null : annotation.permission());
-        if (!annotation.permission().isBlank()) {
-            try {
-                Bukkit.getPluginManager().addPermission(new Permission(annotation.permission()));
-            } catch (Exception ignored) {
-            }
+        setPermission(metadata.permission());
+        if (metadata.permission() != null) {
+            registerPermission(new Permission(metadata.permission()));
         }
 
-        this.params = Arrays.stream(annotation.params()).collect(Collectors.toCollection(Lists::newArrayList));
-        this.shortcuts = Arrays.stream(annotation.shortcuts()).collect(Collectors.toCollection(Lists::newArrayList));
-        this.playerOnly = annotation.playerOnly();
-        this.consoleOnly = annotation.consoleOnly();
-        this.smartTabComplete = annotation.smartTabComplete();
-        this.async = annotation.async();
+        this.params = Lists.newArrayList(metadata.params());
+        this.shortcuts = Lists.newArrayList(metadata.shortcuts());
+        this.playerOnly = metadata.playerOnly();
+        this.consoleOnly = metadata.consoleOnly();
+        this.smartTabComplete = metadata.smartTabComplete();
+        this.async = metadata.async();
         this.parameters = null; // builder-style only
     }
 
@@ -135,15 +142,13 @@ public abstract class Command extends org.bukkit.command.Command {
         );
 
         this.parent = parent;
+        this.metadata = null; // annotation-style only
 
         this.subCommands = Lists.newArrayList();
 
         setPermission((builder.permission() == null) ? null : Objects.requireNonNull(builder.permission()).getName());
         if (builder.permission() != null) {
-            try {
-                Bukkit.getPluginManager().addPermission(Objects.requireNonNull(builder.permission()));
-            } catch (Exception ignored) {
-            }
+            registerPermission(Objects.requireNonNull(builder.permission()));
         }
 
         this.shortcuts = Optional.ofNullable(builder.shortcuts()).orElse(Lists.newArrayList());
@@ -187,6 +192,25 @@ public abstract class Command extends org.bukkit.command.Command {
         return runCommand(sender, args);
     }
 
+    /**
+     * Tests whether the sender has the permission of the command for tab completion, using the {@link PermissionCache}.
+     * Execution and the command tree sent to players use the uncached {@link #testPermissionSilent(CommandSender)},
+     * so a revoked permission takes effect at once.
+     *
+     * @param target The sender to test.
+     * @return True if the sender has any of the permissions of the command, false otherwise.
+     */
+    private boolean testPermissionCached(@NotNull CommandSender target) {
+        String permission = getPermission();
+        if (permission == null || permission.isEmpty()) return true;
+
+        for (String node : permission.split(";")) {
+            if (PermissionCache.has(target, node)) return true;
+        }
+
+        return false;
+    }
+
     public boolean runCommand(@NotNull CommandSender sender, @NotNull String[] args) {
         if (checkConsolePlayerCommand(sender) || !checkParams(sender, args) || checkSubCommands(sender, args))
             return true;
@@ -213,6 +237,22 @@ public abstract class Command extends org.bukkit.command.Command {
         return this;
     }
 
+    /**
+     * Removes a subcommand from the command.
+     *
+     * @param command The subcommand to be removed.
+     * @return Whether the subcommand was removed.
+     * @throws NullPointerException if the subcommand is null.
+     */
+    public boolean removeSubCommand(@NotNull Command command) {
+        Preconditions.checkNotNull(command, "Command cannot be null.");
+
+        if (!subCommands.remove(command)) return false;
+
+        if (command.parent == this) command.parent = null;
+        return true;
+    }
+
     /**
      * Injects a subcommand with the given properties and context processor into the command.
      *
@@ -281,9 +321,11 @@ public abstract class Command extends org.bukkit.command.Command {
             return TabCompleteUtil.getSimilarStrings(result, current);
         }
 
+        boolean permitted = testPermissionCached(sender);
+
         Collection<Command> commands = subMap.get(placement);
         for (Command command : commands) {
-            if (!testPermissionSilent(sender)) continue;
+            if (!permitted) continue;
 
             List<String> match = Lists.newArrayList(command.getName());
             match.addAll(command.getAliases());
@@ -305,7 +347,7 @@ public abstract class Command extends org.bukkit.command.Command {
                     .filter(command -> command.getName().equalsIgnoreCase(arg) || command.getAliases().contains(arg.toLowerCase()) || (command.subAliases != null && command.subAliases.contains(arg.toLowerCase())))
                     .findFirst().orElse(null);
 
-            if (cmd == null || !testPermissionSilent(sender)) continue;
+            if (cmd == null || !permitted) continue;
 
             List<String> completion = cmd.onTabComplete(context);
             if (completion != null && !completion.isEmpty()) {
@@ -422,11 +464,59 @@ public abstract class Command extends org.bukkit.command.Command {
     public Command getAvailableSubCommand(@NotNull final String argument) {
         Preconditions.checkNotNull(argument, "Argument cannot be null.");
 
-        for (Command subCommand : subCommands) {
-            if (subCommand.getName().equalsIgnoreCase(argument) || subCommand.getAliases().contains(argument.toLowerCase()) || (subAliases != null && subAliases.contains(argument.toLowerCase())))
-                return subCommand;
+        Dispatch dispatch = this.dispatch;
+        if (dispatch == null || !dispatch.isCurrent(subCommands)) dispatch = rebuildDispatch();
+
+        Command subCommand = dispatch.labels().get(argument.toLowerCase(Locale.ROOT));
+        if (subCommand != null) return subCommand;
+
+        if (subAliases == null || !subAliases.contains(argument.toLowerCase())) return null;
+
+        return subCommands.isEmpty() ? null : subCommands.get(0);
+    }
+
+    /**
+     * Rebuilds the dispatch table of the subcommands, mapping their lower case names and aliases to the subcommand.
+     * The first subcommand claiming a label keeps it, and the table is swapped at once for async commands.
+     * The table is rebuilt once the subcommands, or the name or aliases of one of them, changed, including changes
+     * made through the lists returned by {@link #getSubCommands()} and {@link #getAliases()}.
+     *
+     * @return The rebuilt dispatch table.
+     */
+    private Dispatch rebuildDispatch() {
+        List<Command> commands = List.copyOf(subCommands);
+        List<String> names = Lists.newArrayListWithCapacity(commands.size());
+        List<List<String>> aliases = Lists.newArrayListWithCapacity(commands.size());
+        Map<String, Command> labels = Maps.newHashMap();
+
+        for (Command subCommand : commands) {
+            names.add(subCommand.getName());
+            aliases.add(List.copyOf(subCommand.getAliases()));
+
+            for (String label : CommandMetadata.labels(subCommand.getName(), subCommand.getAliases().toArray(String[]::new))) {
+                labels.putIfAbsent(label, subCommand);
+            }
+        }
+
+        Dispatch dispatch = new Dispatch(commands, names, aliases, labels);
+        this.dispatch = dispatch;
+        return dispatch;
+    }
+
+    /**
+     * Registers a permission, unless it has already been registered.
+     *
+     * @param permission The permission to register.
+     */
+    private static void registerPermission(@NotNull Permission permission) {
+        PluginManager manager = Bukkit.getPluginManager();
+        if (manager.getPermission(permission.getName()) != null) return;
+
+        try {
+            manager.addPermission(permission);
+        } catch (IllegalArgumentException ignored) {
+            // Registered concurrently by another command.
         }
-        return null;
     }
 
     /**
@@ -494,4 +584,32 @@ public abstract class Command extends org.bukkit.command.Command {
 
         this.subAliases = properties.aliases();
     }
+
+    /**
+     * The dispatch table of the subcommands, along with the subcommands, names and aliases it was built from.
+     *
+     * @param commands The subcommands.
+     * @param names    The names of the subcommands.
+     * @param aliases  The aliases of the subcommands.
+     * @param labels   The subcommands by lower case name and alias.
+     */
+    private record Dispatch(List<Command> commands, List<String> names, List<List<String>> aliases, Map<String, Command> labels) {
+
+        /**
+         * Checks whether the table was built from the current subcommands, names and aliases.
+         *
+         * @param subCommands The current subcommands.
+         * @return Whether the table is current.
+         */
+        boolean isCurrent(@NotNull List<Command> subCommands) {
+            if (subCommands.size() != commands.size()) return false;
+
+            for (int i = 0; i < commands.size(); i++) {
+                Command command = subCommands.get(i);
+                if (command != commands.get(i) || !command.getName().equals(names.get(i)) || !command.getAliases().equals(aliases.get(i))) return false;
+            }
+
+            return true;
+        }
+    }
 }
\ No newline at end of file
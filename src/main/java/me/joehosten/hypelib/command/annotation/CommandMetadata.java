@@ -0,0 +1,166 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.command.annotation;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The resolved metadata of a {@link CommandInfo} annotated command.
+ * <p>
+ * Metadata is normally generated at build time by the
+ * {@link me.joehosten.hypelib.command.annotation.processor.CommandInfoProcessor} as a {@code <Command>_CommandInfo} class,
+ * and is only read reflectively from the annotation, once per class, when no generated class is present.
+ *
+ * @param name             The name of the command.
+ * @param aliases          The aliases of the command.
+ * @param description      The description of the command.
+ * @param usage            The usage of the command.
+ * @param permission       The permission of the command, or null if there is none.
+ * @param params           The required parameters of the command.
+ * @param shortcuts        The shortcuts of the command.
+ * @param playerOnly       Whether the command can only be executed by a player.
+ * @param consoleOnly      Whether the command can only be executed by the console.
+ * @param smartTabComplete Whether the command should use smart tab completion.
+ * @param async            Whether the command should be executed asynchronously.
+ */
+public record CommandMetadata(@NotNull String name, @NotNull List<String> aliases, @NotNull String description,
+                              @NotNull String usage, @Nullable String permission, @NotNull List<String> params,
+                              @NotNull List<String> shortcuts, boolean playerOnly, boolean consoleOnly,
+                              boolean smartTabComplete, boolean async) {
+
+    /**
+     * The suffix of the classes generated by the annotation processor.
+     */
+    public static final String GENERATED_SUFFIX = "_CommandInfo";
+
+    private static final Map<Class<?>, CommandMetadata> REGISTRY = Maps.newConcurrentMap();
+
+    public CommandMetadata {
+        Preconditions.checkNotNull(name, "Name cannot be null!");
+
+        aliases = List.copyOf(aliases);
+        params = List.copyOf(params);
+        shortcuts = List.copyOf(shortcuts);
+    }
+
+    /**
+     * Registers the metadata of a command class, called by the generated classes.
+     *
+     * @param type     The command class.
+     * @param metadata The metadata of the command class.
+     */
+    public static void register(@NotNull Class<?> type, @NotNull CommandMetadata metadata) {
+        Preconditions.checkNotNull(type, "Type cannot be null!");
+        Preconditions.checkNotNull(metadata, "Metadata cannot be null!");
+
+        REGISTRY.put(type, metadata);
+    }
+
+    /**
+     * Retrieves the metadata of a command class.
+     * The generated class is preferred, the annotation is only read when it is missing.
+     *
+     * @param type The command class.
+     * @return The metadata, or null if the class is not annotated with {@link CommandInfo}.
+     */
+    @Nullable
+    public static CommandMetadata of(@NotNull Class<?> type) {
+        Preconditions.checkNotNull(type, "Type cannot be null!");
+
+        CommandMetadata metadata = REGISTRY.get(type);
+        if (metadata != null) return metadata;
+
+        try {
+            // Initializing the generated class registers its metadata.
+            Class.forName(type.getName() + GENERATED_SUFFIX, true, type.getClassLoader());
+
+            metadata = REGISTRY.get(type);
+            if (metadata != null) return metadata;
+        } catch (ClassNotFoundException ignored) {
+        }
+
+        CommandInfo annotation = type.getDeclaredAnnotation(CommandInfo.class);
+        if (annotation == null) return null;
+
+        metadata = of(annotation);
+        REGISTRY.put(type, metadata);
+        return metadata;
+    }
+
+    /**
+     * Creates the metadata from a {@link CommandInfo} annotation.
+     *
+     * @param annotation The annotation.
+     * @return The metadata.
+     */
+    @NotNull
+    public static CommandMetadata of(@NotNull CommandInfo annotation) {
+        Preconditions.checkNotNull(annotation, "Annotation cannot be null!");
+
+        return new CommandMetadata(
+                annotation.name(),
+                Arrays.asList(annotation.aliases()),
+                annotation.description(),
+                annotation.usage(),
+                annotation.permission().isBlank() ? null : annotation.permission(),
+                Arrays.asList(annotation.params()),
+                Arrays.asList(annotation.shortcuts()),
+                annotation.playerOnly(),
+                annotation.consoleOnly(),
+                annotation.smartTabComplete(),
+                annotation.async()
+        );
+    }
+
+    /**
+     * Creates the dispatch labels of a command.
+     *
+     * @param name    The name of the command.
+     * @param aliases The aliases of the command.
+     * @return The distinct, lower case name and aliases.
+     */
+    @NotNull
+    public static List<String> labels(@NotNull String name, @NotNull String... aliases) {
+        Set<String> labels = new LinkedHashSet<>();
+        labels.add(name.toLowerCase(Locale.ROOT));
+
+        for (String alias : aliases) {
+            labels.add(alias.toLowerCase(Locale.ROOT));
+        }
+
+        return List.copyOf(labels);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.command.annotation.processor;
+
+import me.joehosten.hypelib.command.annotation.CommandInfo;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code <Command>_CommandInfo} class for every {@link CommandInfo} annotated command, holding its
+ * metadata, so commands do not have to read the annotation reflectively at startup.
+ * <p>
+ * The annotations are validated while generating, invalid commands fail the build instead of failing on enable.
+ * <p>
+ * This processor only depends on the JDK and the {@link CommandInfo} annotation, as it runs on the annotation
+ * processor path of the plugins using HypeLib.
+ */
+@SupportedAnnotationTypes(CommandInfoProcessor.COMMAND_INFO)
+public class CommandInfoProcessor extends AbstractProcessor {
+
+    static final String COMMAND_INFO = "me.joehosten.hypelib.command.annotation.CommandInfo";
+
+    private static final String COMMAND = "me.joehosten.hypelib.command.Command";
+    private static final String METADATA = "me.joehosten.hypelib.command.annotation.CommandMetadata";
+    private static final String SUFFIX = "_CommandInfo";
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement command = elements.getTypeElement(COMMAND);
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(CommandInfo.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo can only be used on classes.", element);
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            CommandInfo info = type.getAnnotation(CommandInfo.class);
+
+            if (!validate(type, info, command)) continue;
+
+            try {
+                generate(type, info);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Could not generate the command metadata: " + e.getMessage(), type);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Validates a {@link CommandInfo} annotated class.
+     *
+     * @param type    The annotated class.
+     * @param info    The annotation.
+     * @param command The command type, or null if it is not on the classpath.
+     * @return Whether metadata should be generated for the class.
+     */
+    private boolean validate(TypeElement type, CommandInfo info, TypeElement command) {
+        boolean valid = true;
+
+        if (command != null) {
+            TypeMirror erasure = types.erasure(command.asType());
+            if (!types.isAssignable(types.erasure(type.asType()), erasure)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo classes must extend " + COMMAND + ".", type);
+                valid = false;
+            }
+        }
+
+        if (info.name().isBlank() || containsWhitespace(info.name())) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo name must not be blank or contain whitespace.", type);
+            valid = false;
+        }
+
+        if (info.playerOnly() && info.consoleOnly()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo cannot be both playerOnly and consoleOnly.", type);
+            valid = false;
+        }
+
+        Set<String> labels = new LinkedHashSet<>();
+        labels.add(info.name().toLowerCase(Locale.ROOT));
+        for (String alias : info.aliases()) {
+            if (alias.isBlank() || containsWhitespace(alias)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo alias '" + alias + "' must not be blank or contain whitespace.", type);
+                valid = false;
+            } else if (!labels.add(alias.toLowerCase(Locale.ROOT))) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo alias '" + alias + "' is declared more than once.", type);
+                valid = false;
+            }
+        }
+
+        for (String shortcut : info.shortcuts()) {
+            if (shortcut.isBlank() || containsWhitespace(shortcut)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@CommandInfo shortcut '" + shortcut + "' must not be blank or contain whitespace.", type);
+                valid = false;
+            }
+        }
+
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "@CommandInfo is not inherited, it has no effect on abstract classes.", type);
+            return false;
+        }
+
+        if (!isAccessible(type)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "@CommandInfo class is private, its metadata will be read reflectively.", type);
+            return false;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Writes the {@code <Command>_CommandInfo} class of a command.
+     *
+     * @param type The annotated class.
+     * @param info The annotation.
+     * @throws IOException if the source file could not be written.
+     */
+    private void generate(TypeElement type, CommandInfo info) throws IOException {
+        PackageElement pkg = elements.getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (Writer writer = filer.createSourceFile(qualifiedName, type).openWriter()) {
+            if (!packageName.isEmpty()) writer.write("package " + packageName + ";\n\n");
+
+            writer.write("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n");
+            writer.write("public final class " + simpleName + " {\n\n");
+
+            writer.write("    public static final " + METADATA + " METADATA = new " + METADATA + "(\n");
+            writer.write("            " + literal(info.name()) + ",\n");
+            writer.write("            " + list(Arrays.asList(info.aliases())) + ",\n");
+            writer.write("            " + literal(info.description()) + ",\n");
+            writer.write("            " + literal(info.usage()) + ",\n");
+            writer.write("            " + (info.permission().isBlank() ? "null" : literal(info.permission())) + ",\n");
+            writer.write("            " + list(Arrays.asList(info.params())) + ",\n");
+            writer.write("            " + list(Arrays.asList(info.shortcuts())) + ",\n");
+            writer.write("            " + info.playerOnly() + ",\n");
+            writer.write("            " + info.consoleOnly() + ",\n");
+            writer.write("            " + info.smartTabComplete() + ",\n");
+            writer.write("            " + info.async() + "\n");
+            writer.write("    );\n\n");
+
+            writer.write("    static {\n");
+            writer.write("        " + METADATA + ".register(" + type.getQualifiedName() + ".class, METADATA);\n");
+            writer.write("    }\n\n");
+
+            writer.write("    private " + simpleName + "() {\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    /**
+     * Checks whether the generated class can reference the annotated class.
+     *
+     * @param type The annotated class.
+     * @return Whether the class and its enclosing classes are not private.
+     */
+    private boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) return false;
+
+            current = current.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    private boolean containsWhitespace(String value) {
+        return value.chars().anyMatch(Character::isWhitespace);
+    }
+
+    private String list(List<String> values) {
+        return "java.util.List.of(" + values.stream().map(this::literal).collect(Collectors.joining(", ")) + ")";
+    }
+
+    private String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+}
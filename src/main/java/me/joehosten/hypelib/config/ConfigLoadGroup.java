@@ -0,0 +1,320 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.exlll.configlib.YamlConfigurationProperties;
+import me.joehosten.hypelib.config.exception.ConfigLoadException;
+import me.joehosten.hypelib.logger.Logs;
+import me.joehosten.hypelib.menu.config.ConfigurableMenu;
+import me.joehosten.hypelib.menu.config.MenuLoader;
+import me.joehosten.hypelib.util.FileLoader;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Loads many independent configurations concurrently, typically from the {@code enable()} method of a plugin.
+ * <p>
+ * Every configuration added to the group starts loading right away on a bounded pool, and is returned as a
+ * {@link Handle} that holds it once loaded. {@link #join()} then waits for all of them once. As soon as one fails,
+ * the configurations that did not start loading yet are skipped, and {@link #join()} throws a
+ * {@link ConfigLoadException} listing every failure.
+ * <pre>{@code
+ * ConfigLoadGroup group = new ConfigLoadGroup();
+ * ConfigLoadGroup.Handle<Configuration<Settings>> settings = group.config(new File(getDataFolder(), "settings.yml"), Settings.class);
+ * ConfigLoadGroup.Handle<ShopMenu> shop = group.menu(menuLoader, "shop", ShopMenu.class);
+ * group.join();
+ * }</pre>
+ */
+public class ConfigLoadGroup {
+
+    private final ExecutorService executor;
+    private final List<Handle<?>> handles = Lists.newArrayList();
+
+    private volatile boolean failed;
+    private boolean joined;
+
+    /**
+     * Creates a group loading on up to 4 threads, and fewer on machines with fewer cores.
+     */
+    public ConfigLoadGroup() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /**
+     * Creates a group loading on up to the given number of threads.
+     *
+     * @param parallelism The number of threads. Must be positive.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public ConfigLoadGroup(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive");
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "HypeLib Config Loader #" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads a {@link Configuration}.
+     *
+     * @param file  The file to load the configuration from. Cannot be null.
+     * @param clazz The class of the configuration object. Cannot be null.
+     * @param <T>   The type of the configuration object.
+     * @return The handle of the configuration.
+     */
+    @NotNull
+    public <T> Handle<Configuration<T>> config(@NotNull File file, @NotNull Class<T> clazz) {
+        return config(file, clazz, null);
+    }
+
+    /**
+     * Loads a {@link Configuration}.
+     *
+     * @param file               The file to load the configuration from. Cannot be null.
+     * @param clazz              The class of the configuration object. Cannot be null.
+     * @param propertiesFunction A function to configure the properties of the configuration.
+     * @param <T>                The type of the configuration object.
+     * @return The handle of the configuration.
+     */
+    @NotNull
+    public <T> Handle<Configuration<T>> config(@NotNull File file, @NotNull Class<T> clazz, @Nullable Function<YamlConfigurationProperties.Builder<?>, YamlConfigurationProperties.Builder<?>> propertiesFunction) {
+        Preconditions.checkNotNull(file, "File cannot be null");
+        Preconditions.checkNotNull(clazz, "Class cannot be null");
+
+        return add(file.getName(), () -> Configuration.config(file, clazz, propertiesFunction));
+    }
+
+    /**
+     * Loads a menu through a {@link MenuLoader}.
+     *
+     * @param loader The menu loader. Cannot be null.
+     * @param name   The name of the menu file. Cannot be null.
+     * @param clazz  The class of the menu. Cannot be null.
+     * @param <T>    The type of the menu.
+     * @return The handle of the menu.
+     */
+    @NotNull
+    public <T extends ConfigurableMenu> Handle<T> menu(@NotNull MenuLoader loader, @NotNull String name, @NotNull Class<T> clazz) {
+        Preconditions.checkNotNull(loader, "Loader cannot be null");
+        Preconditions.checkNotNull(name, "Name cannot be null");
+        Preconditions.checkNotNull(clazz, "Class cannot be null");
+
+        return add("menus/" + name, () -> loader.loadMenu(name, clazz));
+    }
+
+    /**
+     * Loads a file configuration from the resources of a plugin, as {@link FileLoader#loadFileConfiguration} does.
+     *
+     * @param plugin   The plugin. Cannot be null.
+     * @param resource The name of the resource. Cannot be null.
+     * @return The handle of the file configuration.
+     */
+    @NotNull
+    public Handle<FileConfiguration> fileConfiguration(@NotNull JavaPlugin plugin, @NotNull String resource) {
+        Preconditions.checkNotNull(plugin, "Plugin cannot be null");
+        Preconditions.checkNotNull(resource, "Resource cannot be null");
+
+        return add(resource, () -> {
+            FileConfiguration configuration = FileLoader.loadFileConfiguration(plugin, resource);
+            if (configuration == null) throw new ConfigLoadException("Failed to load resource " + resource);
+
+            return configuration;
+        });
+    }
+
+    /**
+     * Loads anything with a custom loader.
+     *
+     * @param name   The name reported in the timings and errors. Cannot be null.
+     * @param loader The loader, called on a thread of the group. Cannot be null.
+     * @param <T>    The type of the loaded value.
+     * @return The handle of the loaded value.
+     * @throws IllegalStateException if the group was already joined.
+     */
+    @NotNull
+    public synchronized <T> Handle<T> add(@NotNull String name, @NotNull Callable<T> loader) {
+        Preconditions.checkNotNull(name, "Name cannot be null");
+        Preconditions.checkNotNull(loader, "Loader cannot be null");
+        Preconditions.checkState(!joined, "The group was already joined");
+
+        Handle<T> handle = new Handle<>(name);
+        handle.future = CompletableFuture.supplyAsync(() -> {
+            if (failed) throw new CancellationException();
+
+            long start = System.nanoTime();
+            try {
+                return loader.call();
+            } catch (Exception exception) {
+                failed = true;
+                throw new CompletionException(exception);
+            } finally {
+                handle.nanos = System.nanoTime() - start;
+            }
+        }, executor);
+
+        handles.add(handle);
+        return handle;
+    }
+
+    /**
+     * Waits for every added configuration to load, then stops the threads of the group. The total time and the
+     * slowest files are logged, and every timing is available through {@link #getTimings()}.
+     *
+     * @throws ConfigLoadException   if a configuration failed to load, with every failure as a suppressed exception.
+     * @throws IllegalStateException if the group was already joined.
+     */
+    public void join() {
+        List<Handle<?>> handles;
+        synchronized (this) {
+            Preconditions.checkState(!joined, "The group was already joined");
+
+            joined = true;
+            handles = List.copyOf(this.handles);
+        }
+
+        long start = System.nanoTime();
+        try {
+            CompletableFuture.allOf(handles.stream().map(handle -> handle.future).toArray(CompletableFuture[]::new))
+                    .exceptionally(throwable -> null)
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> errors = Lists.newArrayList();
+        List<Throwable> causes = Lists.newArrayList();
+
+        for (Handle<?> handle : handles) {
+            if (!handle.future.isCompletedExceptionally()) continue;
+
+            Throwable cause = handle.future.handle((value, throwable) -> throwable).join();
+            if (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof CancellationException) continue;
+
+            errors.add(handle.name + ": " + cause.getMessage());
+            causes.add(cause);
+        }
+
+        if (!errors.isEmpty()) {
+            ConfigLoadException exception = new ConfigLoadException("Failed to load " + errors.size() + " configuration(s):\n" + String.join("\n", errors));
+            causes.forEach(exception::addSuppressed);
+            throw exception;
+        }
+
+        String slowest = handles.stream()
+                .sorted(Comparator.comparingLong((Handle<?> handle) -> handle.nanos).reversed())
+                .limit(5)
+                .map(handle -> handle.name + " " + handle.getDuration().toMillis() + " ms")
+                .reduce((first, second) -> first + ", " + second)
+                .orElse("none");
+
+        Logs.info("Loaded %d configuration(s) in %d ms (slowest: %s).".formatted(handles.size(), (System.nanoTime() - start) / 1_000_000, slowest));
+    }
+
+    /**
+     * Returns the time each configuration took to load, in the order they were added.
+     *
+     * @return The timings by name.
+     */
+    @NotNull
+    public synchronized Map<String, Duration> getTimings() {
+        Map<String, Duration> timings = Maps.newLinkedHashMap();
+        for (Handle<?> handle : handles) timings.put(handle.name, handle.getDuration());
+
+        return timings;
+    }
+
+    /**
+     * A configuration loading in a {@link ConfigLoadGroup}.
+     *
+     * @param <T> The type of the configuration.
+     */
+    public static final class Handle<T> {
+
+        private final String name;
+        private CompletableFuture<T> future;
+        private volatile long nanos;
+
+        private Handle(@NotNull String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the loaded configuration.
+         *
+         * @return The configuration.
+         * @throws IllegalStateException if the configuration is not loaded, or failed to load.
+         */
+        @NotNull
+        public T get() {
+            Preconditions.checkState(future.isDone() && !future.isCompletedExceptionally(), "\"%s\" has not been loaded.".formatted(name));
+
+            return future.join();
+        }
+
+        /**
+         * Returns the name of the configuration.
+         *
+         * @return The name.
+         */
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the time the configuration took to load.
+         *
+         * @return The duration, zero if it did not load yet.
+         */
+        @NotNull
+        public Duration getDuration() {
+            return Duration.ofNanos(nanos);
+        }
+    }
+}
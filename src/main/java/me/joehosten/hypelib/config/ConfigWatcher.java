@@ -0,0 +1,212 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.joehosten.hypelib.logger.Logs;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the files of the {@link Configuration#watch() watched configurations} and reloads them when they change.
+ * <p>
+ * A single {@link WatchService} thread watches the directories of the watched files. The changes to a file are
+ * debounced, so a burst of writes from an editor results in a single reload once the file stayed unchanged for the
+ * debounce delay. Configurations are parsed on the watcher thread, off the main thread.
+ */
+public final class ConfigWatcher {
+
+    private static final Map<Path, Set<Configuration<?>>> WATCHED = Maps.newHashMap();
+    private static final Map<Path, WatchKey> DIRECTORIES = Maps.newHashMap();
+    private static final Map<Path, ScheduledFuture<?>> PENDING = Maps.newHashMap();
+
+    private static WatchService service;
+    private static ScheduledExecutorService scheduler;
+    private static long debounce = 500;
+
+    private ConfigWatcher() {
+    }
+
+    /**
+     * Sets how long a file has to stay unchanged before it is reloaded.
+     *
+     * @param delay The debounce delay. Cannot be null or negative.
+     * @throws NullPointerException     if the delay is null.
+     * @throws IllegalArgumentException if the delay is negative.
+     */
+    public static synchronized void setDebounce(@NotNull Duration delay) {
+        Preconditions.checkNotNull(delay, "Delay cannot be null");
+        Preconditions.checkArgument(!delay.isNegative(), "Delay cannot be negative");
+
+        debounce = delay.toMillis();
+    }
+
+    /**
+     * Stops watching every file, and stops the watcher thread. Called when the library is disabled.
+     */
+    public static synchronized void shutdown() {
+        WATCHED.clear();
+        DIRECTORIES.clear();
+        PENDING.clear();
+
+        if (scheduler != null) scheduler.shutdownNow();
+        scheduler = null;
+
+        close();
+    }
+
+    static synchronized void watch(@NotNull Configuration<?> configuration, @NotNull Path file) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        Path directory = path.getParent();
+
+        if (service == null) start();
+
+        if (!DIRECTORIES.containsKey(directory)) {
+            DIRECTORIES.put(directory, directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+        }
+
+        WATCHED.computeIfAbsent(path, key -> Sets.newLinkedHashSet()).add(configuration);
+    }
+
+    static synchronized void unwatch(@NotNull Configuration<?> configuration, @NotNull Path file) {
+        Path path = file.toAbsolutePath().normalize();
+
+        Set<Configuration<?>> configurations = WATCHED.get(path);
+        if (configurations == null || !configurations.remove(configuration)) return;
+        if (!configurations.isEmpty()) return;
+
+        WATCHED.remove(path);
+
+        ScheduledFuture<?> pending = PENDING.remove(path);
+        if (pending != null) pending.cancel(false);
+
+        Path directory = path.getParent();
+        if (WATCHED.keySet().stream().noneMatch(watched -> watched.getParent().equals(directory))) {
+            WatchKey key = DIRECTORIES.remove(directory);
+            if (key != null) key.cancel();
+        }
+
+        if (WATCHED.isEmpty()) close();
+    }
+
+    private static void start() throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "HypeLib Config Reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        WatchService watching = service;
+        Thread thread = new Thread(() -> poll(watching), "HypeLib Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void close() {
+        if (service == null) return;
+
+        try {
+            service.close();
+        } catch (IOException exception) {
+            Logs.severe("Failed to close the config watcher: " + exception.getMessage());
+        }
+
+        service = null;
+    }
+
+    private static void poll(@NotNull WatchService watching) {
+        try {
+            while (true) {
+                WatchKey key = watching.take();
+                Path directory = (Path) key.watchable();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changedIn(directory);
+                        continue;
+                    }
+
+                    changed(directory.resolve((Path) event.context()));
+                }
+
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // The watcher was closed.
+        }
+    }
+
+    private static synchronized void changedIn(@NotNull Path directory) {
+        for (Path path : List.copyOf(WATCHED.keySet())) {
+            if (path.getParent().equals(directory)) changed(path);
+        }
+    }
+
+    private static synchronized void changed(@NotNull Path path) {
+        if (!WATCHED.containsKey(path) || scheduler == null) return;
+
+        ScheduledFuture<?> pending = PENDING.get(path);
+        if (pending != null) pending.cancel(false);
+
+        PENDING.put(path, scheduler.schedule(() -> reload(path), debounce, TimeUnit.MILLISECONDS));
+    }
+
+    private static void reload(@NotNull Path path) {
+        List<Configuration<?>> configurations;
+        synchronized (ConfigWatcher.class) {
+            PENDING.remove(path);
+
+            Set<Configuration<?>> watched = WATCHED.get(path);
+            if (watched == null) return;
+
+            configurations = List.copyOf(watched);
+        }
+
+        for (Configuration<?> configuration : configurations) configuration.reloadChanged();
+    }
+}
@@ -28,14 +28,24 @@ package me.joehosten.hypelib.config;
 import com.google.common.base.Preconditions;
 import de.exlll.configlib.YamlConfigurationProperties;
 import de.exlll.configlib.YamlConfigurationStore;
+import me.joehosten.hypelib.logger.Logs;
+import me.joehosten.hypelib.util.Tasks;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * Represents a configuration file that can be loaded, reloaded and saved.
+ * <p>
+ * A configuration can {@link #watch() watch} its file, in which case it is reloaded off the main thread when the
+ * file changes. A reload swaps the object returned by {@link #get()} at once, and keeps the previous object if the
+ * file cannot be parsed.
  * @param <T> the type of the configuration object
  */
 public class Configuration<T> {
@@ -44,8 +54,12 @@ public class Configuration<T> {
     private final Class<T> clazz;
     private final Function<YamlConfigurationProperties.Builder<?>, YamlConfigurationProperties.Builder<?>> propertiesFunction;
 
-    private T object;
+    private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile T object;
     private YamlConfigurationStore<T> store;
+    private long loadedModified;
+    private boolean watching;
 
     /**
      * Creates a new configuration object.
@@ -62,27 +76,125 @@ public class Configuration<T> {
     }
 
     /**
-     * Reloads the configuration from the file.
+     * Reloads the configuration from the file, and notifies the reload listeners.
      */
     public void reload() {
-        if (this.store == null) {
-            YamlConfigurationProperties.Builder<?> builder = YamlConfigurationProperties.newBuilder();
-            builder = propertiesFunction.apply(builder);
+        T loaded;
+        synchronized (this) {
+            loaded = store().update(file.toPath());
 
-            this.store = new YamlConfigurationStore<>(clazz, builder.build());
+            this.object = loaded;
+            this.loadedModified = file.lastModified();
         }
 
-        this.object = store.update(file.toPath());
+        for (Consumer<T> listener : listeners) listener.accept(loaded);
     }
 
     /**
      * Saves the configuration to the file.
      */
     public void save() {
-        store.save(object, file.toPath());
+        synchronized (this) {
+            store().save(object, file.toPath());
+        }
+
         reload();
     }
 
+    /**
+     * Starts watching the file, reloading the configuration off the main thread when it changes.
+     * The reload listeners are then notified on the main thread. If the changed file cannot be parsed,
+     * the error is logged and the previous configuration object is kept.
+     * @return this configuration
+     */
+    @NotNull
+    public synchronized Configuration<T> watch() {
+        if (watching) return this;
+
+        try {
+            ConfigWatcher.watch(this, file.toPath());
+            watching = true;
+        } catch (IOException exception) {
+            Logs.severe("Failed to watch " + file.getName() + ": " + exception.getMessage());
+        }
+
+        return this;
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    public synchronized void unwatch() {
+        if (!watching) return;
+
+        ConfigWatcher.unwatch(this, file.toPath());
+        watching = false;
+    }
+
+    /**
+     * Checks whether the file is watched.
+     * @return whether the file is watched
+     */
+    public synchronized boolean isWatching() {
+        return watching;
+    }
+
+    /**
+     * Adds a listener called with the new configuration object after every successful reload.
+     * @param listener the listener
+     */
+    public void onReload(@NotNull Consumer<T> listener) {
+        Preconditions.checkNotNull(listener, "Listener cannot be null");
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a reload listener.
+     * @param listener the listener
+     */
+    public void removeReloadListener(@NotNull Consumer<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reloads the configuration after its file changed, unless the change was written by this configuration.
+     * Called by the {@link ConfigWatcher} on its own thread.
+     */
+    void reloadChanged() {
+        T loaded;
+        synchronized (this) {
+            long modified = file.lastModified();
+            if (modified == loadedModified || !file.exists()) return;
+
+            try {
+                loaded = store().load(file.toPath());
+            } catch (RuntimeException exception) {
+                Logs.severe("Failed to reload " + file.getName() + ", keeping the previous configuration: " + exception.getMessage());
+                return;
+            }
+
+            this.object = loaded;
+            this.loadedModified = modified;
+        }
+
+        Tasks.run(() -> {
+            for (Consumer<T> listener : listeners) listener.accept(loaded);
+        });
+    }
+
+    @NotNull
+    private YamlConfigurationStore<T> store() {
+        if (this.store == null) {
+            YamlConfigurationProperties.Builder<?> builder = YamlConfigurationProperties.newBuilder();
+            if (propertiesFunction != null) builder = propertiesFunction.apply(builder);
+
+            this.store = new YamlConfigurationStore<>(clazz, builder.build());
+        }
+
+        return store;
+    }
+
     /**
      * Returns the configuration object.
      * @return the configuration object
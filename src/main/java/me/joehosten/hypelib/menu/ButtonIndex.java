@@ -0,0 +1,300 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Indexes the buttons rendered in a menu, both by slot and by their {@link MenuButton#id()},
+ * so clicks are dispatched without scanning or allocating.
+ * <p>
+ * The index also remembers which {@link MenuButton#version()} was written to each slot,
+ * so a refresh only writes the slots whose button or item changed.
+ * <p>
+ * While a refresh lays out its buttons, the occupied slots of the layout are kept in a bitset,
+ * so occupancy checks and free slot lookups take constant time. Menus have at most 54 slots.
+ */
+final class ButtonIndex {
+
+    private static final int STALE = -1;
+
+    private final MenuButton[] slots;
+    private final int[] versions;
+    private final MenuButton[] layout;
+    private final long full;
+    private long occupied;
+
+    // Open addressing table of rendered button ids, 0 marks an empty bucket.
+    private final int[] ids;
+    private final MenuButton[] values;
+
+    ButtonIndex(int size) {
+        Preconditions.checkArgument(size >= 0 && size <= Long.SIZE, "Size must be between 0 and " + Long.SIZE);
+
+        this.slots = new MenuButton[size];
+        this.versions = new int[size];
+        this.layout = new MenuButton[size];
+        this.full = size == Long.SIZE ? -1L : (1L << size) - 1;
+
+        int capacity = Integer.highestOneBit(Math.max(size, 1)) << 2;
+        this.ids = new int[capacity];
+        this.values = new MenuButton[capacity];
+    }
+
+    /**
+     * Returns the amount of slots in the index.
+     *
+     * @return The amount of slots.
+     */
+    int size() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the button rendered in a slot.
+     *
+     * @param slot The slot.
+     * @return The button, or null if the slot is out of range or no button is rendered in it.
+     */
+    @Nullable
+    MenuButton bySlot(int slot) {
+        return slot < 0 || slot >= slots.length ? null : slots[slot];
+    }
+
+    /**
+     * Returns the rendered button with an id.
+     *
+     * @param id The id of the button.
+     * @return The button, or null if no button with the id is rendered.
+     */
+    @Nullable
+    MenuButton byId(int id) {
+        if (id == 0) return null;
+
+        int mask = ids.length - 1;
+        for (int i = hash(id) & mask; ids[i] != 0; i = (i + 1) & mask) {
+            if (ids[i] == id) return values[i];
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether a slot already shows the current item of a button.
+     *
+     * @param slot   The slot.
+     * @param button The button that should be shown, or null if the slot should be empty.
+     * @return Whether writing the slot can be skipped.
+     */
+    boolean isCurrent(int slot, @Nullable MenuButton button) {
+        return slots[slot] == button && versions[slot] == (button == null ? 0 : button.version());
+    }
+
+    /**
+     * Returns the reusable layout array, cleared, in which a refresh places the buttons it wants to show.
+     *
+     * @return The cleared layout array.
+     */
+    MenuButton[] layout() {
+        Arrays.fill(layout, null);
+        occupied = 0;
+        return layout;
+    }
+
+    /**
+     * Returns the reusable layout array, holding a copy of the layout of another index of the same size.
+     *
+     * @param base The index to copy the layout of.
+     * @return The layout array.
+     */
+    MenuButton[] layout(@NotNull ButtonIndex base) {
+        System.arraycopy(base.layout, 0, layout, 0, layout.length);
+        occupied = base.occupied;
+        return layout;
+    }
+
+    /**
+     * Places a button in a slot of the layout.
+     *
+     * @param slot   The slot.
+     * @param button The button.
+     */
+    void place(int slot, @NotNull MenuButton button) {
+        layout[slot] = button;
+        occupied |= 1L << slot;
+    }
+
+    /**
+     * Checks whether a slot of the layout holds a button.
+     *
+     * @param slot The slot.
+     * @return Whether the slot is occupied.
+     */
+    boolean isPlaced(int slot) {
+        return (occupied & 1L << slot) != 0;
+    }
+
+    /**
+     * Returns the first slot of the layout without a button.
+     *
+     * @return The first free slot, or -1 if every slot is occupied.
+     */
+    int freeSlot() {
+        long free = ~occupied & full;
+        return free == 0 ? -1 : Long.numberOfTrailingZeros(free);
+    }
+
+    /**
+     * Marks every slot as stale, so the next refresh writes every slot.
+     */
+    void invalidate() {
+        Arrays.fill(versions, STALE);
+    }
+
+    /**
+     * Marks a slot as stale, so the next refresh writes it again.
+     *
+     * @param slot The slot, ignored if it is out of range.
+     */
+    void invalidate(int slot) {
+        if (slot >= 0 && slot < versions.length) versions[slot] = STALE;
+    }
+
+    /**
+     * Marks the slots a click that is not cancelled may change as stale, since the player may take items from
+     * or put items into the menu. Moving items into the menu or collecting them to the cursor may change any slot.
+     *
+     * @param event The click event.
+     */
+    void invalidate(@NotNull InventoryClickEvent event) {
+        int raw = event.getRawSlot();
+        InventoryAction action = event.getAction();
+
+        if (action == InventoryAction.COLLECT_TO_CURSOR || action == InventoryAction.MOVE_TO_OTHER_INVENTORY && raw >= versions.length) {
+            invalidate();
+            return;
+        }
+
+        invalidate(raw);
+    }
+
+    /**
+     * Marks the slots of the menu a drag that is not cancelled covers as stale.
+     *
+     * @param event The drag event.
+     */
+    void invalidate(@NotNull InventoryDragEvent event) {
+        for (int slot : event.getRawSlots()) invalidate(slot);
+    }
+
+    /**
+     * Sets the button rendered in a slot.
+     *
+     * @param slot   The slot.
+     * @param button The button, or null to clear the slot.
+     */
+    void set(int slot, @Nullable MenuButton button) {
+        MenuButton previous = slots[slot];
+        versions[slot] = button == null ? 0 : button.version();
+        if (previous == button) return;
+
+        slots[slot] = button;
+
+        if (previous != null && !isRendered(previous)) removeId(previous.id());
+        if (button != null) putId(button);
+    }
+
+    /**
+     * Clears every slot and the layout, dropping every button reference.
+     */
+    void clear() {
+        Arrays.fill(layout, null);
+        occupied = 0;
+        Arrays.fill(slots, null);
+        Arrays.fill(versions, 0);
+        Arrays.fill(ids, 0);
+        Arrays.fill(values, null);
+    }
+
+    private boolean isRendered(MenuButton button) {
+        for (MenuButton rendered : slots) {
+            if (rendered == button) return true;
+        }
+
+        return false;
+    }
+
+    private void putId(MenuButton button) {
+        int id = button.id();
+        int mask = ids.length - 1;
+
+        int i = hash(id) & mask;
+        while (ids[i] != 0 && ids[i] != id) i = (i + 1) & mask;
+
+        ids[i] = id;
+        values[i] = button;
+    }
+
+    private void removeId(int id) {
+        int mask = ids.length - 1;
+
+        int i = hash(id) & mask;
+        while (ids[i] != id) {
+            if (ids[i] == 0) return;
+            i = (i + 1) & mask;
+        }
+
+        // Shift the following entries back, so lookups never stop at the freed bucket.
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (ids[j] == 0) break;
+
+            int home = hash(ids[j]) & mask;
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (stays) continue;
+
+            ids[i] = ids[j];
+            values[i] = values[j];
+            i = j;
+        }
+
+        ids[i] = 0;
+        values[i] = null;
+    }
+
+    private static int hash(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
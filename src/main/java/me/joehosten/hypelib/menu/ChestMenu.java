@@ -28,10 +28,12 @@ package me.joehosten.hypelib.menu;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import me.joehosten.hypelib.AluminaPlugin;
+import me.joehosten.hypelib.logger.Logs;
 import me.joehosten.hypelib.menu.holder.ChestMenuHolder;
 import me.joehosten.hypelib.util.MathUtil;
 import me.joehosten.hypelib.util.MiniMessageUtil;
 import me.joehosten.hypelib.util.NBTEditor;
+import me.joehosten.hypelib.util.Tasks;
 import lombok.Setter;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -42,6 +44,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
@@ -49,8 +52,11 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * @apiNote This system still uses the old Spigot method of formatting titles, such as &c for red.
@@ -70,10 +76,14 @@ public abstract class ChestMenu implements InteractiveMenu {
 
     @Setter
     private boolean cancelClicks = false;
+    private boolean pooled = false;
 
     protected final Set<MenuButton> buttons;
 
     protected Inventory inventory;
+    private Component inventoryTitle;
+
+    private ButtonIndex index;
 
     /**
      * Represents a chest menu with a specific title and number of rows.
@@ -86,7 +96,9 @@ public abstract class ChestMenu implements InteractiveMenu {
         this.rows = rows;
 
         this.buttons = Sets.newHashSet();
-        this.inventory = Bukkit.createInventory(new ChestMenuHolder(this), rows * 9, this.title);
+        this.inventory = createInventory();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -100,7 +112,9 @@ public abstract class ChestMenu implements InteractiveMenu {
         this.rows = rows;
 
         this.buttons = Sets.newHashSet();
-        this.inventory = Bukkit.createInventory(new ChestMenuHolder(this), rows * 9, this.title);
+        this.inventory = createInventory();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -108,6 +122,8 @@ public abstract class ChestMenu implements InteractiveMenu {
      */
     public ChestMenu() {
         this.buttons = Sets.newHashSet();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -119,7 +135,7 @@ public abstract class ChestMenu implements InteractiveMenu {
     public void open(@NotNull Player player) {
         Preconditions.checkNotNull(player, "Player cannot be null");
 
-        if (inventory == null) inventory = Bukkit.createInventory(new ChestMenuHolder(this), rows * 9, title);
+        if (inventory == null) inventory = createInventory();
 
         refresh(player);
 
@@ -128,30 +144,36 @@ public abstract class ChestMenu implements InteractiveMenu {
 
     /**
      * Refreshes the inventory of the ChestMenu for the specified player.
+     * Only the slots whose button or item changed since the last refresh are written.
      *
      * @param player The player whose inventory needs to be refreshed. Must not be null.
      */
     @Override
     public void refresh(@NotNull Player player) {
-        inventory.clear();
-
-        for (MenuButton button : buttons) {
-            int slot = button.getSlot();
-            if (isSlotOccupied(slot) || !button.canView(player)) continue;
+        if (inventory == null) return;
 
-            ItemStack item = button.getItem();
-            ItemMeta meta = item.getItemMeta();
-            if (meta == null) continue;
+        boolean recording = MenuMetrics.isRecording(this);
+        long start = recording ? System.nanoTime() : 0L;
 
-            NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, button.uuid().toString());
+        ButtonIndex index = index();
+        MenuButton[] layout = index.layout();
 
-            item.setItemMeta(meta);
+        for (MenuButton button : buttons) {
+            int slot = button.getSlot();
+            if (isSlotOccupied(index, slot) || !button.canView(player) || isEmpty(button)) continue;
 
-            if (slot == -1) slot = getFreeSlot();
+            if (slot == -1) slot = index.freeSlot();
             if (slot == -1) continue;
 
-            inventory.setItem(slot, item);
+            index.place(slot, button);
+        }
+
+        int written = 0;
+        for (int slot = 0; slot < layout.length; slot++) {
+            if (render(index, slot, layout[slot])) written++;
         }
+
+        if (recording) MenuMetrics.refreshed(this, System.nanoTime() - start, written);
     }
 
     /**
@@ -163,17 +185,10 @@ public abstract class ChestMenu implements InteractiveMenu {
         Preconditions.checkArgument(MathUtil.between(slot, 0, rows * 9), "Slot must be between 0 and " + (rows * 9));
 
         MenuButton button = buttons.stream().filter(menuButton -> menuButton.getSlot() == slot).findFirst().orElse(null);
-        if (button == null) return;
-
-        ItemStack item = button.getItem();
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return;
-
-        NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, button.uuid().toString());
+        if (button == null || isEmpty(button) || inventory == null) return;
 
-        item.setItemMeta(meta);
-
-        inventory.setItem(slot, item);
+        index().set(slot, button);
+        inventory.setItem(slot, button.render(FUNCTION));
     }
 
     /**
@@ -200,6 +215,30 @@ public abstract class ChestMenu implements InteractiveMenu {
 
     }
 
+    /**
+     * Called when a player drags items over the inventory. Drags over the menu are cancelled when clicks are cancelled,
+     * otherwise the dragged slots of the menu are written again on the next refresh.
+     *
+     * @param player The player who dragged items.
+     * @param event  The inventory drag event.
+     */
+    @Override
+    public void onDrag(@NotNull Player player, @NotNull InventoryDragEvent event) {
+        if (!cancelClicks) {
+            index().invalidate(event);
+            return;
+        }
+
+        int size = event.getView().getTopInventory().getSize();
+        for (int slot : event.getRawSlots()) {
+            if (slot >= size) continue;
+
+            event.setCancelled(true);
+            event.setResult(Event.Result.DENY);
+            return;
+        }
+    }
+
     /**
      * Called when a player clicks on an inventory item.
      *
@@ -212,28 +251,149 @@ public abstract class ChestMenu implements InteractiveMenu {
         if (cancelClicks) {
             event.setCancelled(true);
             event.setResult(Event.Result.DENY);
+        } else {
+            index().invalidate(event);
         }
 
         ItemStack current = event.getCurrentItem();
         if (current == null) return;
 
+        MenuButton button = findButton(event, current);
+        if (button == null) return;
+
+        button.process(player, event);
+    }
+
+    /**
+     * Finds the button that was clicked, by slot within the menu and by the tagged id elsewhere.
+     *
+     * @param event   The inventory click event.
+     * @param current The clicked item.
+     * @return The clicked button, or null if no button was clicked.
+     */
+    @Nullable
+    private MenuButton findButton(@NotNull InventoryClickEvent event, @NotNull ItemStack current) {
+        ButtonIndex index = index();
+
+        int raw = event.getRawSlot();
+        if (raw >= 0 && raw < index.size()) return index.bySlot(raw);
+
         ItemMeta meta = current.getItemMeta();
-        if (meta == null) return;
+        if (meta == null) return null;
+
+        Integer id = NBTEditor.get(meta, FUNCTION, PersistentDataType.INTEGER);
+        return id == null ? null : index.byId(id);
+    }
+
+    /**
+     * Writes a slot, unless it already shows the current item of the button.
+     *
+     * @param index  The button index.
+     * @param slot   The slot to write.
+     * @param button The button to show, or null to empty the slot.
+     */
+    private boolean render(@NotNull ButtonIndex index, int slot, @Nullable MenuButton button) {
+        if (index.isCurrent(slot, button)) return false;
+
+        index.set(slot, button);
+        inventory.setItem(slot, button == null ? null : button.render(FUNCTION));
+        return true;
+    }
+
+    /**
+     * Checks whether a button has no item to show.
+     *
+     * @param button The button.
+     * @return True if the item of the button is missing or air.
+     */
+    private static boolean isEmpty(@NotNull MenuButton button) {
+        ItemStack item = button.getItem();
+        return item == null || item.getType().isAir();
+    }
 
-        String function = NBTEditor.get(meta, FUNCTION, PersistentDataType.STRING);
-        if (function == null) {
-            // Check by slot.
-            MenuButton button = buttons.stream().filter(menuButton -> menuButton.getSlot() == event.getSlot()).findFirst().orElse(null);
-            if (button == null) return;
+    /**
+     * Marks a button as changed, so the next {@link #refresh(Player)} writes it again.
+     * Only needed after modifying the item of the button directly, {@link MenuButton#updateItem} already does this.
+     *
+     * @param button The button that changed. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void markDirty(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        button.markDirty();
+    }
+
+    /**
+     * Marks every slot as changed, so the next {@link #refresh(Player)} writes the whole inventory again.
+     */
+    public void markDirty() {
+        index().invalidate();
+    }
+
+    /**
+     * Returns the button index, recreated when the size of the inventory changed.
+     *
+     * @return The button index.
+     */
+    private ButtonIndex index() {
+        int size = inventory == null ? rows * 9 : inventory.getSize();
+        if (index == null || index.size() != size) index = new ButtonIndex(size);
+
+        return index;
+    }
+
+    /**
+     * Takes an inventory for this menu from the {@link MenuLifecycle} pool, or creates one.
+     *
+     * @return The inventory, bound to this menu.
+     */
+    private Inventory createInventory() {
+        Inventory created = MenuLifecycle.acquire(ChestMenuHolder.class, rows * 9, title, () -> new ChestMenuHolder(this));
+
+        ChestMenuHolder holder = (ChestMenuHolder) created.getHolder();
+        holder.bind(this);
+        holder.setInventory(created);
+
+        inventoryTitle = title;
+        return created;
+    }
+
+    /**
+     * Releases the resources of the menu once nobody views it. The rendered buttons are forgotten, so opening the
+     * menu again writes every slot. The inventory of the menu is kept, unless the menu is {@link #setPooled(boolean) pooled}.
+     */
+    @Override
+    public void release() {
+        if (inventory == null || !inventory.getViewers().isEmpty()) return;
 
-            button.process(player, event);
+        ButtonIndex index = index();
+        index.clear();
+
+        if (!pooled) {
+            index.invalidate();
             return;
         }
 
-        MenuButton button = buttons.stream().filter(menuButton -> menuButton.uuid().toString().equals(function)).findFirst().orElse(null);
-        if (button == null) return;
+        Inventory released = inventory;
+        inventory = null;
 
-        button.process(player, event);
+        ((ChestMenuHolder) released.getHolder()).unbind();
+        MenuLifecycle.release(released, inventoryTitle);
+
+        inventoryTitle = null;
+    }
+
+    /**
+     * Sets whether the inventory of the menu is returned to the {@link MenuLifecycle} pool when the menu is
+     * released, with its holder unbound, so neither keeps this menu alive. The menu takes an inventory again when it
+     * is opened. While released, the {@code inventory} of a pooled menu is null, and it must not be used by
+     * references kept from before the release, since another menu may have taken it. Menus are not pooled by default.
+     *
+     * @param pooled Whether the inventory is pooled.
+     */
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
     }
 
     /**
@@ -261,32 +421,102 @@ public abstract class ChestMenu implements InteractiveMenu {
     }
 
     /**
-     * Returns the index of the first free slot in the inventory.
+     * Builds a {@link MenuModel} on a worker thread, and renders the item of each of its buttons there as well.
+     * The returned future completes on the worker thread, so the model has to be published on the main thread.
      *
-     * @return The index of the first free slot, or -1 if there are no free slots.
+     * @param spec Fills the builder of the model. Runs on the worker thread. Cannot be null.
+     * @return A future completed with the model, or completed exceptionally if the model has listings.
+     * @throws NullPointerException if the spec is null.
      */
-    private int getFreeSlot() {
-        int index = 0;
-        for (ItemStack content : inventory.getContents()) {
-            if (content == null) return index;
+    @NotNull
+    public CompletableFuture<MenuModel> buildModel(@NotNull Consumer<MenuModel.Builder> spec) {
+        Preconditions.checkNotNull(spec, "Spec cannot be null");
 
-            index++;
-        }
-        return -1;
+        return Tasks.await(() -> {
+            MenuModel.Builder builder = MenuModel.builder();
+            spec.accept(builder);
+
+            MenuModel model = builder.build();
+            Preconditions.checkArgument(model.listings().isEmpty(), "A chest menu cannot have listings");
+
+            for (MenuButton button : model.buttons()) {
+                if (!isEmpty(button)) button.render(FUNCTION);
+            }
+
+            return model;
+        });
+    }
+
+    /**
+     * Replaces the buttons of the menu with the ones of a model. Call {@link #refresh(Player)} afterwards
+     * to show the model to the viewers of the menu.
+     *
+     * @param model The model to publish. Cannot have listings, a chest menu has no listing slots. Cannot be null.
+     * @throws NullPointerException     if the model is null.
+     * @throws IllegalArgumentException if the model has listings.
+     * @throws IllegalStateException    if called off the main thread.
+     */
+    public void publish(@NotNull MenuModel model) {
+        Preconditions.checkNotNull(model, "Model cannot be null");
+        Preconditions.checkArgument(model.listings().isEmpty(), "A chest menu cannot have listings");
+        Preconditions.checkState(Bukkit.isPrimaryThread(), "Models must be published on the main thread");
+
+        buttons.clear();
+        buttons.addAll(model.buttons());
+    }
+
+    /**
+     * Builds a {@link MenuModel} on a worker thread, then publishes it and opens the menu for the player
+     * in a single step on the main thread. The menu is not opened if the player left in the meantime.
+     *
+     * @param player The player to open the menu for. Cannot be null.
+     * @param spec   Fills the builder of the model. Runs on the worker thread. Cannot be null.
+     * @return A future completed once the model is published, or completed exceptionally if building or publishing it failed.
+     * @throws NullPointerException if the player or the spec is null.
+     */
+    @NotNull
+    public CompletableFuture<Void> openAsync(@NotNull Player player, @NotNull Consumer<MenuModel.Builder> spec) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkNotNull(spec, "Spec cannot be null");
+
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        buildModel(spec).whenComplete((model, throwable) -> {
+            if (throwable != null) {
+                Logs.severe("Failed to build " + getClass().getSimpleName() + ": " + throwable.getMessage());
+                published.completeExceptionally(throwable);
+                return;
+            }
+
+            Tasks.run(() -> {
+                try {
+                    publish(model);
+                    if (player.isOnline()) open(player);
+                } catch (Exception exception) {
+                    Logs.severe("Failed to publish " + getClass().getSimpleName() + ": " + exception.getMessage());
+                    published.completeExceptionally(exception);
+                    return;
+                }
+
+                published.complete(null);
+            });
+        });
+
+        return published;
     }
 
     /**
-     * Checks if a slot in the inventory is occupied.
+     * Checks if a slot in the layout being built by a refresh is occupied.
      *
-     * @param slot The index of the slot to check. Use -1 to check if any free slot is available.
+     * @param index The button index holding the layout.
+     * @param slot  The index of the slot to check. Use -1 to check if any free slot is available.
      * @return True if the slot is occupied, false otherwise.
      */
-    private boolean isSlotOccupied(int slot) {
-        if (slot == -1) return getFreeSlot() == -1;
+    private boolean isSlotOccupied(@NotNull ButtonIndex index, int slot) {
+        if (slot == -1) return index.freeSlot() == -1;
 
         Preconditions.checkArgument(MathUtil.between(slot, 0, rows * 9), "Slot must be between 0 and " + (rows * 9));
 
-        return inventory.getItem(slot) != null;
+        return index.isPlaced(slot);
     }
 
     /**
@@ -312,8 +542,7 @@ public abstract class ChestMenu implements InteractiveMenu {
 
         this.title = MiniMessageUtil.translate(input);
 
-        if (inventory == null)
-            inventory = Bukkit.createInventory(new ChestMenuHolder(this), rows * 9, title);
+        if (inventory == null) return;
 
         for (HumanEntity viewer : inventory.getViewers()) {
             InventoryView view = viewer.getOpenInventory();
@@ -334,8 +563,7 @@ public abstract class ChestMenu implements InteractiveMenu {
 
         this.title = input;
 
-        if (inventory == null)
-            inventory = Bukkit.createInventory(new ChestMenuHolder(this), rows * 9, title);
+        if (inventory == null) return;
 
         for (HumanEntity viewer : inventory.getViewers()) {
             InventoryView view = viewer.getOpenInventory();
@@ -0,0 +1,154 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import me.joehosten.hypelib.event.Events;
+import me.joehosten.hypelib.logger.Logs;
+import me.joehosten.hypelib.util.Tasks;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link MenuButton.AsyncClickAction async click actions} of menu buttons off the main thread.
+ * <p>
+ * Every player has a serial queue, so their clicks are handled one after the other in the order they were made,
+ * while clicks of different players run in parallel. Clicks of a player within the debounce time of their
+ * previous accepted click are dropped, which stops double clicks from buying twice.
+ * The result of an action is run on the main thread.
+ */
+public final class ClickQueue {
+
+    private static final Map<UUID, Lane> LANES = Maps.newConcurrentMap();
+    private static final Executor ASYNC = Tasks::async;
+
+    private static volatile long debounce = Duration.ofMillis(250).toNanos();
+    private static volatile boolean registered = false;
+
+    private ClickQueue() {
+    }
+
+    /**
+     * Starts listening for quits, dropping the queues of players that left.
+     * This is called by {@link me.joehosten.hypelib.AluminaPlugin} on enable.
+     */
+    public static synchronized void register() {
+        if (registered) return;
+
+        Events.listen(PlayerQuitEvent.class, EventPriority.MONITOR, event -> LANES.remove(event.getPlayer().getUniqueId()));
+
+        registered = true;
+    }
+
+    /**
+     * Queues the async action of a button for a player.
+     *
+     * @param button The clicked button.
+     * @param player The player who clicked.
+     * @param action The async action of the button.
+     * @param click  The click that was made.
+     * @return Whether the click was queued, false if it was debounced.
+     */
+    static boolean submit(@NotNull MenuButton button, @NotNull Player player, @NotNull MenuButton.AsyncClickAction action, @NotNull ClickType click) {
+        Lane lane = LANES.computeIfAbsent(player.getUniqueId(), key -> new Lane());
+
+        synchronized (lane) {
+            long now = System.nanoTime();
+            if (lane.last != 0 && now - lane.last < debounce) return false;
+
+            lane.last = now;
+            lane.pending.incrementAndGet();
+
+            lane.tail = lane.tail.thenRunAsync(() -> {
+                Runnable result = null;
+                try {
+                    result = action.onClick(button, player, click);
+                } catch (Throwable throwable) {
+                    Logs.severe("Failed to handle the click of " + player.getName() + ": " + throwable.getMessage());
+                } finally {
+                    lane.pending.decrementAndGet();
+                }
+
+                if (result != null) Tasks.run(result);
+            }, ASYNC);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of clicks of a player that are queued or running.
+     *
+     * @param player The player.
+     * @return The number of pending clicks.
+     */
+    public static int getPending(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Lane lane = LANES.get(player.getUniqueId());
+        return lane == null ? 0 : lane.pending.get();
+    }
+
+    /**
+     * Sets the time within which further clicks of a player are dropped after an accepted click.
+     *
+     * @param duration The debounce time, zero to accept every click. Cannot be null or negative.
+     * @throws IllegalArgumentException if the duration is negative.
+     */
+    public static void setDebounce(@NotNull Duration duration) {
+        Preconditions.checkNotNull(duration, "Duration cannot be null");
+        Preconditions.checkArgument(!duration.isNegative(), "Duration cannot be negative");
+
+        debounce = duration.toNanos();
+    }
+
+    /**
+     * Returns the time within which further clicks of a player are dropped after an accepted click.
+     *
+     * @return The debounce time.
+     */
+    @NotNull
+    public static Duration getDebounce() {
+        return Duration.ofNanos(debounce);
+    }
+
+    private static final class Lane {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private long last;
+    }
+}
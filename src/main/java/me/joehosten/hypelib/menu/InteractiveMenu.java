@@ -28,6 +28,7 @@ package me.joehosten.hypelib.menu;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.jetbrains.annotations.NotNull;
 
@@ -60,6 +61,15 @@ public interface InteractiveMenu {
      */
     void onClick(@NotNull Player player, @NotNull InventoryClickEvent event);
 
+    /**
+     * Called when the player drags items over the inventory.
+     *
+     * @param player the player who dragged items
+     * @param event the inventory drag event
+     */
+    default void onDrag(@NotNull Player player, @NotNull InventoryDragEvent event) {
+    }
+
     /**
      * Opens an interactive menu for the given player.
      *
@@ -74,4 +84,11 @@ public interface InteractiveMenu {
      */
     void refresh(@NotNull Player player);
 
+    /**
+     * Releases the resources held for the viewers of the menu, called a tick after its last viewer closed it.
+     * The menu can still be opened again afterwards.
+     */
+    default void release() {
+    }
+
 }
@@ -28,6 +28,7 @@ package me.joehosten.hypelib.menu;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.InventoryHolder;
 import org.jetbrains.annotations.NotNull;
@@ -65,6 +66,16 @@ public interface InteractiveMenuHolder<T extends InteractiveMenu> extends Invent
      */
     void onClick(@NotNull Player player, @NotNull InventoryClickEvent event);
 
+    /**
+     * Handles a drag over the inventory. By default, the drag is forwarded to the menu.
+     *
+     * @param player The player who dragged items.
+     * @param event The InventoryDragEvent triggered by the player's drag.
+     */
+    default void onDrag(@NotNull Player player, @NotNull InventoryDragEvent event) {
+        getMenu().onDrag(player, event);
+    }
+
     /**
      * Retrieves the Interactive Menu associated with the holder.
      *
@@ -0,0 +1,258 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.joehosten.hypelib.util.SuggestionIndex;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * A search index over the listings of a {@link PaginatedMenu}.
+ * <p>
+ * Every listing is tokenised into lower case words taken from its keys, by default the plain text of its name and
+ * lore, once per {@link MenuButton#version() version} of the listing, so a listing whose item was updated is
+ * tokenised again. A query matches the listings that have, for every word of the query, a word starting with it.
+ * Lookups go through a prefix index and per word bitsets, so listings are never scanned, and the results of recent
+ * queries are cached until the listings change.
+ */
+public final class ListingSearch {
+
+    /**
+     * Uses the plain text of the name and lore of the item of a listing as its keys,
+     * or the material when the item has no name.
+     */
+    public static final Function<MenuButton, Collection<String>> NAME_AND_LORE = button -> {
+        ItemStack item = button.getItem();
+        if (item == null) return List.of();
+
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) return List.of();
+
+        List<String> keys = Lists.newArrayList();
+
+        Component name = meta.displayName();
+        keys.add(name == null ? item.getType().name() : PlainTextComponentSerializer.plainText().serialize(name));
+
+        List<Component> lore = meta.lore();
+        if (lore != null) {
+            for (Component line : lore) keys.add(PlainTextComponentSerializer.plainText().serialize(line));
+        }
+
+        return keys;
+    };
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int CACHED_QUERIES = 64;
+
+    private final Function<MenuButton, Collection<String>> keys;
+    private final Map<String, List<MenuButton>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<MenuButton>> eldest) {
+            return size() > CACHED_QUERIES;
+        }
+    };
+
+    private List<MenuButton> indexed = List.of();
+    private int[] versions = new int[0];
+    private Map<MenuButton, Tokens> tokens = Maps.newIdentityHashMap();
+    private Map<String, BitSet> postings = Map.of();
+    private SuggestionIndex words = SuggestionIndex.empty(false);
+    private boolean stale = true;
+
+    /**
+     * Creates a search index over the {@link #NAME_AND_LORE names and lore} of listings.
+     */
+    public ListingSearch() {
+        this(NAME_AND_LORE);
+    }
+
+    /**
+     * Creates a search index over custom keys of listings, such as tags.
+     *
+     * @param keys The function returning the keys of a listing, which are tokenised into words. Cannot be null.
+     * @throws NullPointerException if the function is null.
+     */
+    public ListingSearch(@NotNull Function<MenuButton, Collection<String>> keys) {
+        Preconditions.checkNotNull(keys, "Keys cannot be null");
+
+        this.keys = keys;
+    }
+
+    /**
+     * Splits a text into lower case words.
+     *
+     * @param text The text.
+     * @return The words of the text.
+     */
+    @NotNull
+    public static List<String> tokenize(@NotNull String text) {
+        Preconditions.checkNotNull(text, "Text cannot be null");
+
+        List<String> words = Lists.newArrayList();
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * Marks the index as stale, so every listing is tokenised again on the next search. Changes to the searched
+     * listings and their versions are detected by the search itself, this is only needed when the keys of a listing
+     * changed without it being marked dirty.
+     */
+    public void invalidate() {
+        stale = true;
+        tokens = Maps.newIdentityHashMap();
+    }
+
+    /**
+     * Returns the listings matching a query, in listing order. An empty query matches every listing.
+     *
+     * @param listings The listings to search, the index is rebuilt when they changed.
+     * @param query    The query.
+     * @return An unmodifiable list of the matching listings.
+     */
+    @NotNull
+    public List<MenuButton> search(@NotNull Collection<MenuButton> listings, @NotNull String query) {
+        Preconditions.checkNotNull(listings, "Listings cannot be null");
+        Preconditions.checkNotNull(query, "Query cannot be null");
+
+        if (stale || !isIndexed(listings)) index(listings);
+
+        return cache.computeIfAbsent(String.join(" ", tokenize(query)), this::find);
+    }
+
+    /**
+     * Checks whether the index holds the given listings, in the same order and at the same versions.
+     *
+     * @param listings The listings.
+     * @return Whether the index is current.
+     */
+    private boolean isIndexed(@NotNull Collection<MenuButton> listings) {
+        if (indexed.size() != listings.size()) return false;
+
+        int i = 0;
+        for (MenuButton listing : listings) {
+            if (indexed.get(i) != listing || versions[i] != listing.version()) return false;
+            i++;
+        }
+
+        return true;
+    }
+
+    private void index(@NotNull Collection<MenuButton> listings) {
+        List<MenuButton> indexed = List.copyOf(listings);
+        int[] versions = new int[indexed.size()];
+        Map<MenuButton, Tokens> tokens = Maps.newIdentityHashMap();
+        Map<String, BitSet> postings = Maps.newHashMap();
+
+        for (int i = 0; i < indexed.size(); i++) {
+            MenuButton listing = indexed.get(i);
+            int version = listing.version();
+
+            Tokens known = this.tokens.get(listing);
+            if (known == null || known.version() != version) known = new Tokens(version, keywords(listing));
+
+            versions[i] = version;
+            tokens.put(listing, known);
+
+            for (String word : known.words()) postings.computeIfAbsent(word, key -> new BitSet()).set(i);
+        }
+
+        this.indexed = indexed;
+        this.versions = versions;
+        this.tokens = tokens;
+        this.postings = postings;
+        this.words = SuggestionIndex.of(postings.keySet(), false);
+        this.cache.clear();
+        this.stale = false;
+    }
+
+    /**
+     * Tokenises the keys of a listing.
+     *
+     * @param listing The listing.
+     * @return The distinct words of the keys of the listing.
+     */
+    @NotNull
+    private Collection<String> keywords(@NotNull MenuButton listing) {
+        Collection<String> values = keys.apply(listing);
+        if (values == null) return List.of();
+
+        Set<String> words = Sets.newHashSet();
+        for (String value : values) {
+            if (value != null) words.addAll(tokenize(value));
+        }
+        return words;
+    }
+
+    @NotNull
+    private List<MenuButton> find(@NotNull String query) {
+        if (query.isEmpty()) return indexed;
+
+        BitSet result = null;
+        for (String word : query.split(" ")) {
+            BitSet matches = new BitSet(indexed.size());
+            for (String match : words.startingWith(word, Integer.MAX_VALUE)) matches.or(postings.get(match));
+
+            if (result == null) result = matches;
+            else result.and(matches);
+
+            if (result.isEmpty()) return List.of();
+        }
+
+        List<MenuButton> found = Lists.newArrayListWithCapacity(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) found.add(indexed.get(i));
+
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * The words of a listing at a version of the listing.
+     *
+     * @param version The version of the listing.
+     * @param words   The words of the listing.
+     */
+    private record Tokens(int version, Collection<String> words) {
+    }
+}
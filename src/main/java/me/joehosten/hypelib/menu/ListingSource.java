@@ -0,0 +1,95 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Supplies the listings of a {@link PaginatedMenu} one page at a time,
+ * so only the buttons of the visible page have to exist.
+ */
+public interface ListingSource {
+
+    /**
+     * Returns the total number of listings. Called on every refresh, so it should be cheap.
+     *
+     * @return The number of listings.
+     */
+    int count();
+
+    /**
+     * Creates the buttons of a page of listings.
+     *
+     * @param offset The index of the first listing of the page.
+     * @param limit  The maximum number of listings on the page.
+     * @return The buttons of the page, at most {@code limit} of them.
+     */
+    @NotNull
+    List<MenuButton> page(int offset, int limit);
+
+    /**
+     * Creates a listing source over a list, creating the buttons of a page only when it is shown.
+     * Values for which the function returns null are left out of the page.
+     *
+     * @param values   The values to list. Cannot be null.
+     * @param function The function creating the button of a value. Cannot be null.
+     * @param <T>      The type of the values.
+     * @return The listing source.
+     * @throws NullPointerException if the values or the function are null.
+     */
+    @NotNull
+    static <T> ListingSource of(@NotNull List<T> values, @NotNull Function<T, MenuButton> function) {
+        Preconditions.checkNotNull(values, "Values cannot be null");
+        Preconditions.checkNotNull(function, "Function cannot be null");
+
+        return new ListingSource() {
+            @Override
+            public int count() {
+                return values.size();
+            }
+
+            @Override
+            public @NotNull List<MenuButton> page(int offset, int limit) {
+                int end = Math.min(values.size(), offset + limit);
+
+                List<MenuButton> page = new ArrayList<>(Math.max(0, end - offset));
+                for (int i = offset; i < end; i++) {
+                    MenuButton button = function.apply(values.get(i));
+                    if (button == null) continue;
+
+                    page.add(button);
+                }
+
+                return page;
+            }
+        };
+    }
+
+}
@@ -27,30 +27,68 @@ package me.joehosten.hypelib.menu;
 
 import com.google.common.base.Preconditions;
 import me.joehosten.hypelib.model.Unique;
+import me.joehosten.hypelib.permission.PermissionCache;
+import me.joehosten.hypelib.util.NBTEditor;
 import lombok.Builder;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * Represents a menu button that can be clicked and triggers an action.
+ * <p>
+ * The tagged item a menu shows for a button is rendered once and cached until the item changes,
+ * so a button kept in a static field, such as a {@link #decoration(int, ItemStack)}, is rendered
+ * once and shared by every menu instance showing it.
  */
 @Builder
 public class MenuButton implements Unique {
 
+    private static final AtomicInteger IDS = new AtomicInteger();
+    private static final long SESSION = UUID.randomUUID().getMostSignificantBits();
+
     private ItemStack item;
     private final int slot;
     private final ClickAction action;
+    private final AsyncClickAction asyncAction;
     private final Predicate<Player> viewCondition;
-    private final UUID uuid = UUID.randomUUID();
+    private final String permission;
+    private final int id = IDS.incrementAndGet();
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicReference<Rendered> rendered = new AtomicReference<>();
+
+    /**
+     * Creates a button without an action, meant for static decoration such as borders and fillers.
+     * Keep the returned button in a static field to render it once for every instance of a menu.
+     *
+     * @param slot The slot of the button, or -1 to use the first free slot.
+     * @param item The item of the button. Cannot be null.
+     * @return The decoration button.
+     * @throws NullPointerException if the item is null.
+     */
+    @NotNull
+    public static MenuButton decoration(int slot, @NotNull ItemStack item) {
+        Preconditions.checkNotNull(item, "Item cannot be null");
+
+        return MenuButton.builder().slot(slot).item(item).build();
+    }
 
     /**
      * Processes the click event for a menu button.
+     * The action runs right away, the async action is queued in the {@link ClickQueue} and cancels the event.
      *
      * @param player The player who clicked the button.
      * @param event The click event that occurred.
@@ -59,9 +97,13 @@ public class MenuButton implements Unique {
         Preconditions.checkNotNull(player, "Player cannot be null");
         Preconditions.checkNotNull(event, "Event cannot be null");
 
-        if (action == null) return;
+        if (action != null) action.onClick(this, player, event);
+        if (asyncAction == null) return;
+
+        event.setCancelled(true);
+        event.setResult(Event.Result.DENY);
 
-        action.onClick(this, player, event);
+        ClickQueue.submit(this, player, asyncAction, event.getClick());
     }
 
     /**
@@ -75,10 +117,55 @@ public class MenuButton implements Unique {
         Preconditions.checkNotNull(function, "Function cannot be null");
 
         item = function.apply(item);
+        markDirty();
+    }
+
+    /**
+     * Marks the item of this button as changed, which invalidates its rendered item,
+     * so menus showing it render and write it again on their next refresh.
+     * This is done by {@link #updateItem(Function)}, and only has to be called after modifying the item directly.
+     */
+    public void markDirty() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of the item of this button, which changes every time it is marked dirty.
+     *
+     * @return The version of the item.
+     */
+    public int version() {
+        return version.get();
+    }
+
+    /**
+     * Returns the item of this button tagged with its id under the given key, rendering it only
+     * when it was not rendered for this key and version yet. The returned item must not be modified.
+     *
+     * @param key The key to tag the id under.
+     * @return The rendered item.
+     */
+    @NotNull
+    ItemStack render(@NotNull NamespacedKey key) {
+        int current = version();
+
+        Rendered cached = rendered.get();
+        if (cached != null && cached.version() == current && cached.key().equals(key)) return cached.item();
+
+        ItemStack render = item.clone();
+        ItemMeta meta = render.getItemMeta();
+        if (meta != null) {
+            NBTEditor.set(meta, key, PersistentDataType.INTEGER, id);
+            render.setItemMeta(meta);
+        }
+
+        rendered.set(new Rendered(key, current, render));
+        return render;
     }
 
     /**
      * Checks if a player can view a menu button.
+     * The permission of the button, if any, is checked through the {@link PermissionCache}.
      *
      * @param player The player to check.
      * @return {@code true} if the player can view the menu button, {@code false} otherwise.
@@ -87,11 +174,13 @@ public class MenuButton implements Unique {
     public boolean canView(@NotNull Player player) {
         Preconditions.checkNotNull(player, "Player cannot be null");
 
+        if (permission != null && !PermissionCache.has(player, permission)) return false;
+
         return viewCondition == null || viewCondition.test(player);
     }
 
     /**
-     * Returns the universally unique identifier (UUID) for this object.
+     * Returns the universally unique identifier (UUID) for this object, derived from its {@link #id()}.
      *
      * @return A UUID representing the unique identifier for this object.
      *
@@ -101,7 +190,17 @@ public class MenuButton implements Unique {
      */
     @Override
     public @NotNull UUID uuid() {
-        return uuid;
+        return new UUID(SESSION, id);
+    }
+
+    /**
+     * Returns the id of this button, unique among the buttons created since the server started.
+     * Menus tag rendered items with this id, and index rendered buttons by it.
+     *
+     * @return The id of this button, never 0.
+     */
+    public int id() {
+        return id;
     }
 
     /**
@@ -122,6 +221,9 @@ public class MenuButton implements Unique {
         return item;
     }
 
+    private record Rendered(NamespacedKey key, int version, ItemStack item) {
+    }
+
     /**
      * Represents an action that can be performed when a player clicks on a menu button.
      */
@@ -131,4 +233,25 @@ public class MenuButton implements Unique {
         void onClick(@NotNull MenuButton button, @NotNull Player player, @NotNull InventoryClickEvent event);
 
     }
+
+    /**
+     * Represents an action that runs off the main thread when a player clicks on a menu button, such as a purchase
+     * that hits a database. The clicks of a player are handled one at a time, in order, by the {@link ClickQueue}.
+     */
+    @FunctionalInterface
+    public interface AsyncClickAction {
+
+        /**
+         * Handles the click off the main thread. The Bukkit world and inventories must not be touched here,
+         * return a runnable to apply the result on the main thread instead.
+         *
+         * @param button The clicked button.
+         * @param player The player who clicked.
+         * @param click  The click that was made.
+         * @return A runnable run on the main thread afterwards, or null if there is nothing to apply.
+         */
+        @Nullable
+        Runnable onClick(@NotNull MenuButton button, @NotNull Player player, @NotNull ClickType click);
+
+    }
 }
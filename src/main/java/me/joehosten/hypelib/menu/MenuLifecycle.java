@@ -0,0 +1,217 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Recycles menu inventories and tracks how many menus and holders are alive.
+ * <p>
+ * An inventory is bound to its holder and title when it is created, so a released inventory is pooled by the class
+ * of its holder, its size and its title, and handed to the next menu asking for the same combination, with its
+ * holder bound to that menu. Chest and paginated menus only release their inventory to the pool once they are
+ * {@link ChestMenu#setPooled(boolean) pooled}, since subclasses may keep using it after a close, while the private
+ * inventories of the viewers of a {@link SharedMenu} are always pooled. The live counts go down once a menu or
+ * holder is garbage collected, so a count that keeps growing while {@link MenuTicker#getOpenMenus()} does not
+ * points at menus that are still referenced after being closed.
+ */
+public final class MenuLifecycle {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final AtomicInteger LIVE_MENUS = new AtomicInteger();
+    private static final AtomicInteger LIVE_HOLDERS = new AtomicInteger();
+
+    private static final Map<Key, Deque<Inventory>> POOL = Maps.newHashMap();
+
+    private static int poolSize = 16;
+    private static int pooled;
+
+    private MenuLifecycle() {
+    }
+
+    /**
+     * Counts a menu as alive until it is garbage collected. This is called by the menus of the library when they are created.
+     *
+     * @param menu The created menu.
+     */
+    public static void track(@NotNull InteractiveMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        LIVE_MENUS.incrementAndGet();
+        CLEANER.register(menu, LIVE_MENUS::decrementAndGet);
+    }
+
+    /**
+     * Counts a holder as alive until it is garbage collected. This is called by the holders of the library when they are created.
+     *
+     * @param holder The created holder.
+     */
+    public static void track(@NotNull InteractiveMenuHolder<?> holder) {
+        Preconditions.checkNotNull(holder, "Holder cannot be null");
+
+        LIVE_HOLDERS.incrementAndGet();
+        CLEANER.register(holder, LIVE_HOLDERS::decrementAndGet);
+    }
+
+    /**
+     * Takes a pooled inventory with the given holder class, size and title, or creates one with a new holder.
+     * A pooled inventory is empty, and its holder must be bound to the menu by the caller.
+     *
+     * @param type    The class of the holder.
+     * @param size    The size of the inventory.
+     * @param title   The title of the inventory.
+     * @param creator Creates the holder of a new inventory.
+     * @param <H>     The type of the holder.
+     * @return The inventory.
+     */
+    @NotNull
+    public static <H extends InteractiveMenuHolder<?>> Inventory acquire(@NotNull Class<H> type, int size, @NotNull Component title, @NotNull Supplier<H> creator) {
+        Preconditions.checkNotNull(type, "Type cannot be null");
+        Preconditions.checkNotNull(title, "Title cannot be null");
+        Preconditions.checkNotNull(creator, "Creator cannot be null");
+
+        synchronized (POOL) {
+            Deque<Inventory> inventories = POOL.get(new Key(type, size, title));
+            Inventory inventory = inventories == null ? null : inventories.poll();
+
+            if (inventory != null) {
+                pooled--;
+                return inventory;
+            }
+        }
+
+        return Bukkit.createInventory(creator.get(), size, title);
+    }
+
+    /**
+     * Returns an inventory to the pool once nobody views it. The inventory is cleared, and its holder must already
+     * be unbound from its menu, so the pool does not keep the menu alive. An inventory that is still viewed, or that
+     * does not fit in the pool, is left to be garbage collected.
+     *
+     * @param inventory The inventory to release.
+     * @param title     The title the inventory was created with.
+     * @return Whether the inventory was pooled.
+     */
+    public static boolean release(@NotNull Inventory inventory, @NotNull Component title) {
+        Preconditions.checkNotNull(inventory, "Inventory cannot be null");
+        Preconditions.checkNotNull(title, "Title cannot be null");
+
+        if (!inventory.getViewers().isEmpty()) return false;
+
+        InventoryHolder holder = inventory.getHolder();
+        if (!(holder instanceof InteractiveMenuHolder<?>)) return false;
+
+        inventory.clear();
+
+        synchronized (POOL) {
+            Deque<Inventory> inventories = POOL.computeIfAbsent(new Key(holder.getClass(), inventory.getSize(), title), key -> new ArrayDeque<>());
+            if (inventories.size() >= poolSize) return false;
+
+            inventories.push(inventory);
+            pooled++;
+            return true;
+        }
+    }
+
+    /**
+     * Sets how many inventories are pooled for each holder class, size and title. Shrinking the pool drops the
+     * inventories above the new size.
+     *
+     * @param size The pool size. Zero disables pooling.
+     */
+    public static void setPoolSize(int size) {
+        Preconditions.checkArgument(size >= 0, "Pool size cannot be negative");
+
+        synchronized (POOL) {
+            poolSize = size;
+
+            for (Deque<Inventory> inventories : POOL.values()) {
+                while (inventories.size() > size) {
+                    inventories.removeLast();
+                    pooled--;
+                }
+            }
+
+            POOL.values().removeIf(Deque::isEmpty);
+        }
+    }
+
+    /**
+     * Drops every pooled inventory.
+     */
+    public static void clearPool() {
+        synchronized (POOL) {
+            POOL.clear();
+            pooled = 0;
+        }
+    }
+
+    /**
+     * Returns the number of pooled inventories.
+     *
+     * @return The number of pooled inventories.
+     */
+    public static int getPooledInventories() {
+        synchronized (POOL) {
+            return pooled;
+        }
+    }
+
+    /**
+     * Returns the number of menus that were created and not garbage collected yet.
+     *
+     * @return The number of live menus.
+     */
+    public static int getLiveMenus() {
+        return LIVE_MENUS.get();
+    }
+
+    /**
+     * Returns the number of holders that were created and not garbage collected yet, pooled ones included.
+     *
+     * @return The number of live holders.
+     */
+    public static int getLiveHolders() {
+        return LIVE_HOLDERS.get();
+    }
+
+    private record Key(Class<?> holder, int size, Component title) {
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in rendering and interaction metrics per menu class.
+ * <p>
+ * Nothing is recorded until a menu class is {@link #enable(Class) enabled}, and enabling a class records its
+ * subclasses as well, each under its own class. Opens, closes by close reason, and clicks are recorded by the
+ * {@link me.joehosten.hypelib.menu.listener.MenuListener}, and refreshes by the menus of the library, with the
+ * number of slots they wrote to the inventory.
+ */
+public final class MenuMetrics {
+
+    private static final InventoryCloseEvent.Reason[] REASONS = InventoryCloseEvent.Reason.values();
+
+    private static final Set<Class<?>> ENABLED = ConcurrentHashMap.newKeySet();
+    private static final Map<Class<?>, Boolean> RESOLVED = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Recorder> RECORDERS = new ConcurrentHashMap<>();
+
+    private MenuMetrics() {
+    }
+
+    /**
+     * Starts recording the metrics of a menu class and its subclasses.
+     *
+     * @param type The menu class. Cannot be null.
+     * @throws NullPointerException if the class is null.
+     */
+    public static void enable(@NotNull Class<? extends InteractiveMenu> type) {
+        Preconditions.checkNotNull(type, "Type cannot be null");
+
+        ENABLED.add(type);
+        RESOLVED.clear();
+    }
+
+    /**
+     * Stops recording the metrics of a menu class and its subclasses. The metrics recorded so far are kept until {@link #reset()}.
+     *
+     * @param type The menu class. Cannot be null.
+     * @throws NullPointerException if the class is null.
+     */
+    public static void disable(@NotNull Class<? extends InteractiveMenu> type) {
+        Preconditions.checkNotNull(type, "Type cannot be null");
+
+        ENABLED.remove(type);
+        RESOLVED.clear();
+    }
+
+    /**
+     * Drops every recorded metric. The viewer counts of the menus that are open are kept.
+     */
+    public static void reset() {
+        RECORDERS.replaceAll((type, recorder) -> new Recorder(recorder.viewers.get()));
+    }
+
+    /**
+     * Checks whether the metrics of a menu are recorded.
+     *
+     * @param menu The menu. Cannot be null.
+     * @return Whether the class of the menu, or one of its superclasses, is enabled.
+     */
+    public static boolean isRecording(@NotNull InteractiveMenu menu) {
+        return recorder(menu) != null;
+    }
+
+    /**
+     * Records that a menu was opened by a viewer.
+     *
+     * @param menu The opened menu. Cannot be null.
+     */
+    public static void opened(@NotNull InteractiveMenu menu) {
+        Recorder recorder = recorder(menu);
+        if (recorder == null) return;
+
+        recorder.opens.increment();
+        recorder.viewers.incrementAndGet();
+    }
+
+    /**
+     * Records that a viewer closed a menu.
+     *
+     * @param menu   The closed menu. Cannot be null.
+     * @param reason The reason the menu was closed for. Cannot be null.
+     */
+    public static void closed(@NotNull InteractiveMenu menu, @NotNull InventoryCloseEvent.Reason reason) {
+        Recorder recorder = RECORDERS.get(menu.getClass());
+        if (recorder == null) return;
+
+        recorder.viewers.updateAndGet(viewers -> Math.max(0, viewers - 1));
+        if (isRecording(menu)) recorder.closes[reason.ordinal()].increment();
+    }
+
+    /**
+     * Records a refresh of a menu.
+     *
+     * @param menu    The refreshed menu. Cannot be null.
+     * @param nanos   The duration of the refresh, in nanoseconds.
+     * @param written The number of slots written to the inventory.
+     */
+    public static void refreshed(@NotNull InteractiveMenu menu, long nanos, int written) {
+        Recorder recorder = recorder(menu);
+        if (recorder == null) return;
+
+        recorder.refreshes.increment();
+        recorder.refreshNanos.add(nanos);
+        recorder.maxRefreshNanos.accumulateAndGet(nanos, Math::max);
+        recorder.slotsWritten.add(written);
+    }
+
+    /**
+     * Records the handling of a click in a menu.
+     *
+     * @param menu  The clicked menu. Cannot be null.
+     * @param nanos The duration of the click handler, in nanoseconds.
+     */
+    public static void clicked(@NotNull InteractiveMenu menu, long nanos) {
+        Recorder recorder = recorder(menu);
+        if (recorder == null) return;
+
+        recorder.clicks.increment();
+        recorder.clickNanos.add(nanos);
+        recorder.maxClickNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns the metrics of a menu class.
+     *
+     * @param type The menu class. Cannot be null.
+     * @return The metrics, or null if nothing was recorded for the class.
+     */
+    @Nullable
+    public static Snapshot snapshot(@NotNull Class<? extends InteractiveMenu> type) {
+        Preconditions.checkNotNull(type, "Type cannot be null");
+
+        Recorder recorder = RECORDERS.get(type);
+        return recorder == null ? null : recorder.snapshot(type);
+    }
+
+    /**
+     * Returns the metrics of every recorded menu class, the ones that spent the most time first.
+     *
+     * @return The metrics.
+     */
+    @NotNull
+    public static List<Snapshot> snapshots() {
+        List<Snapshot> snapshots = Lists.newArrayList();
+        RECORDERS.forEach((type, recorder) -> snapshots.add(recorder.snapshot(type)));
+
+        snapshots.sort(Comparator.comparingLong(Snapshot::totalNanos).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Formats the metrics of every recorded menu class, one line per class, the ones that spent the most time first.
+     *
+     * @return The lines.
+     */
+    @NotNull
+    public static List<String> dump() {
+        List<Snapshot> snapshots = snapshots();
+        if (snapshots.isEmpty()) return List.of("No menu metrics recorded.");
+
+        List<String> lines = Lists.newArrayListWithCapacity(snapshots.size() + 1);
+        lines.add("Menu metrics (" + snapshots.size() + " classes):");
+
+        for (Snapshot snapshot : snapshots) {
+            lines.add("%s: %d opens, closes %s, %d viewers, %d refreshes (avg %.3f ms, max %.3f ms, %.1f slots), %d clicks (avg %.3f ms, max %.3f ms)".formatted(
+                    snapshot.menu(), snapshot.opens(), snapshot.closes(), snapshot.viewers(),
+                    snapshot.refreshes(), snapshot.averageRefreshMillis(), snapshot.maxRefreshNanos() / 1e6, snapshot.averageSlotsWritten(),
+                    snapshot.clicks(), snapshot.averageClickMillis(), snapshot.maxClickNanos() / 1e6));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Sends the {@link #dump() metrics} of every recorded menu class to a sender, such as from an admin command.
+     *
+     * @param sender The sender. Cannot be null.
+     * @throws NullPointerException if the sender is null.
+     */
+    public static void dump(@NotNull CommandSender sender) {
+        Preconditions.checkNotNull(sender, "Sender cannot be null");
+
+        for (String line : dump()) sender.sendMessage(line);
+    }
+
+    @Nullable
+    private static Recorder recorder(@NotNull InteractiveMenu menu) {
+        if (ENABLED.isEmpty()) return null;
+
+        Class<?> type = menu.getClass();
+        if (!RESOLVED.computeIfAbsent(type, MenuMetrics::isEnabled)) return null;
+
+        return RECORDERS.computeIfAbsent(type, key -> new Recorder(0));
+    }
+
+    private static boolean isEnabled(@NotNull Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (ENABLED.contains(current)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * The metrics of a menu class at a point in time.
+     *
+     * @param menu            The name of the menu class.
+     * @param opens           The number of times the menu was opened.
+     * @param closes          The number of times the menu was closed, by close reason.
+     * @param viewers         The number of viewers currently viewing a menu of the class.
+     * @param refreshes       The number of refreshes.
+     * @param refreshNanos    The total duration of the refreshes, in nanoseconds.
+     * @param maxRefreshNanos The duration of the longest refresh, in nanoseconds.
+     * @param slotsWritten    The total number of slots written by the refreshes.
+     * @param clicks          The number of handled clicks.
+     * @param clickNanos      The total duration of the click handlers, in nanoseconds.
+     * @param maxClickNanos   The duration of the longest click handler, in nanoseconds.
+     */
+    public record Snapshot(String menu, long opens, Map<InventoryCloseEvent.Reason, Long> closes, int viewers, long refreshes, long refreshNanos, long maxRefreshNanos,
+                           long slotsWritten, long clicks, long clickNanos, long maxClickNanos) {
+
+        /**
+         * Returns the time spent in refreshes and click handlers.
+         *
+         * @return The total duration, in nanoseconds.
+         */
+        public long totalNanos() {
+            return refreshNanos + clickNanos;
+        }
+
+        /**
+         * Returns the average duration of a refresh.
+         *
+         * @return The average duration, in milliseconds.
+         */
+        public double averageRefreshMillis() {
+            return refreshes == 0 ? 0 : refreshNanos / 1e6 / refreshes;
+        }
+
+        /**
+         * Returns the average number of slots written per refresh.
+         *
+         * @return The average number of slots.
+         */
+        public double averageSlotsWritten() {
+            return refreshes == 0 ? 0 : (double) slotsWritten / refreshes;
+        }
+
+        /**
+         * Returns the average duration of a click handler.
+         *
+         * @return The average duration, in milliseconds.
+         */
+        public double averageClickMillis() {
+            return clicks == 0 ? 0 : clickNanos / 1e6 / clicks;
+        }
+    }
+
+    private static final class Recorder {
+
+        private final LongAdder opens = new LongAdder();
+        private final LongAdder[] closes = new LongAdder[REASONS.length];
+        private final AtomicInteger viewers;
+        private final LongAdder refreshes = new LongAdder();
+        private final LongAdder refreshNanos = new LongAdder();
+        private final AtomicLong maxRefreshNanos = new AtomicLong();
+        private final LongAdder slotsWritten = new LongAdder();
+        private final LongAdder clicks = new LongAdder();
+        private final LongAdder clickNanos = new LongAdder();
+        private final AtomicLong maxClickNanos = new AtomicLong();
+
+        private Recorder(int viewers) {
+            this.viewers = new AtomicInteger(viewers);
+            for (int i = 0; i < closes.length; i++) closes[i] = new LongAdder();
+        }
+
+        private Snapshot snapshot(@NotNull Class<?> type) {
+            String name = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+
+            Map<InventoryCloseEvent.Reason, Long> closed = new EnumMap<>(InventoryCloseEvent.Reason.class);
+            for (InventoryCloseEvent.Reason reason : REASONS) {
+                long count = closes[reason.ordinal()].sum();
+                if (count > 0) closed.put(reason, count);
+            }
+
+            return new Snapshot(name, opens.sum(), Collections.unmodifiableMap(closed), viewers.get(), refreshes.sum(), refreshNanos.sum(), maxRefreshNanos.get(),
+                    slotsWritten.sum(), clicks.sum(), clickNanos.sum(), maxClickNanos.get());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable set of buttons, listings and listing slots, built off the main thread and published to a menu at once.
+ * <p>
+ * A model is built with a {@link Builder} on a single thread, usually through {@link PaginatedMenu#buildModel} or
+ * {@link ChestMenu#buildModel}, which also render the item of every button on the worker thread. Publishing the
+ * model on the main thread only swaps the buttons of the menu, so building a large menu does not stall the server.
+ */
+public final class MenuModel {
+
+    private final List<MenuButton> buttons;
+    private final List<MenuButton> listings;
+    private final int[] paginatedSlots;
+    private final MenuButton nextPageButton;
+    private final MenuButton previousPageButton;
+
+    private MenuModel(@NotNull Builder builder) {
+        this.buttons = List.copyOf(builder.buttons);
+        this.listings = List.copyOf(builder.listings);
+        this.paginatedSlots = builder.paginatedSlots;
+        this.nextPageButton = builder.nextPageButton;
+        this.previousPageButton = builder.previousPageButton;
+    }
+
+    /**
+     * Creates a builder for a model. A builder is not thread-safe, and is meant to be filled by a single thread.
+     *
+     * @return A new builder.
+     */
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the static buttons of the model.
+     *
+     * @return An immutable list of buttons.
+     */
+    @NotNull
+    public List<MenuButton> buttons() {
+        return buttons;
+    }
+
+    /**
+     * Returns the listings of the model, in order.
+     *
+     * @return An immutable list of listings.
+     */
+    @NotNull
+    public List<MenuButton> listings() {
+        return listings;
+    }
+
+    /**
+     * Returns the listing slots of the model.
+     *
+     * @return A copy of the sorted slots, or null if the model keeps the slots of the menu.
+     */
+    public int @Nullable [] paginatedSlots() {
+        return paginatedSlots == null ? null : paginatedSlots.clone();
+    }
+
+    /**
+     * Returns the next page button of the model.
+     *
+     * @return The button, or null if the model keeps the button of the menu.
+     */
+    @Nullable
+    public MenuButton nextPageButton() {
+        return nextPageButton;
+    }
+
+    /**
+     * Returns the previous page button of the model.
+     *
+     * @return The button, or null if the model keeps the button of the menu.
+     */
+    @Nullable
+    public MenuButton previousPageButton() {
+        return previousPageButton;
+    }
+
+    /**
+     * Builds a {@link MenuModel}.
+     */
+    public static final class Builder {
+
+        private final List<MenuButton> buttons = Lists.newArrayList();
+        private final List<MenuButton> listings = Lists.newArrayList();
+        private int[] paginatedSlots;
+        private MenuButton nextPageButton;
+        private MenuButton previousPageButton;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a static button.
+         *
+         * @param button The button. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the button is null.
+         */
+        @NotNull
+        public Builder button(@NotNull MenuButton button) {
+            Preconditions.checkNotNull(button, "Button cannot be null");
+
+            buttons.add(button);
+            return this;
+        }
+
+        /**
+         * Adds static buttons.
+         *
+         * @param buttons The buttons. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the buttons or one of them is null.
+         */
+        @NotNull
+        public Builder buttons(@NotNull Collection<MenuButton> buttons) {
+            Preconditions.checkNotNull(buttons, "Buttons cannot be null");
+
+            for (MenuButton button : buttons) button(button);
+            return this;
+        }
+
+        /**
+         * Adds a listing after the listings added so far.
+         *
+         * @param listing The listing. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the listing is null.
+         */
+        @NotNull
+        public Builder listing(@NotNull MenuButton listing) {
+            Preconditions.checkNotNull(listing, "Listing cannot be null");
+
+            listings.add(listing);
+            return this;
+        }
+
+        /**
+         * Generates a listing for every element, skipping the elements the function returns null for,
+         * like {@link PaginatedMenu#generatePaginatedButtons}.
+         *
+         * @param elements The elements. Cannot be null.
+         * @param function The function creating the listing of an element. Cannot be null.
+         * @param <K>      The type of the elements.
+         * @return This builder.
+         * @throws NullPointerException if the elements or the function is null.
+         */
+        @NotNull
+        public <K> Builder listings(@NotNull Iterable<K> elements, @NotNull Function<K, MenuButton> function) {
+            Preconditions.checkNotNull(elements, "Elements cannot be null");
+            Preconditions.checkNotNull(function, "Function cannot be null");
+
+            for (K element : elements) {
+                MenuButton listing = function.apply(element);
+                if (listing != null) listings.add(listing);
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets the listing slots, replacing the slots of the menu when published.
+         *
+         * @param slots The slots. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the slots are null.
+         */
+        @NotNull
+        public Builder paginatedSlots(int @NotNull ... slots) {
+            Preconditions.checkNotNull(slots, "Slots cannot be null");
+
+            this.paginatedSlots = Arrays.stream(slots).distinct().sorted().toArray();
+            return this;
+        }
+
+        /**
+         * Sets the listing slots from a compiled layout, replacing the slots of the menu when published.
+         *
+         * @param layout The layout of the slots. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the layout is null.
+         */
+        @NotNull
+        public Builder paginatedSlots(@NotNull SlotLayout layout) {
+            Preconditions.checkNotNull(layout, "Layout cannot be null");
+
+            this.paginatedSlots = layout.slots();
+            return this;
+        }
+
+        /**
+         * Sets the next page button, replacing the button of the menu when published.
+         *
+         * @param button The button. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the button is null.
+         */
+        @NotNull
+        public Builder nextPageButton(@NotNull MenuButton button) {
+            Preconditions.checkNotNull(button, "Next page button cannot be null");
+
+            this.nextPageButton = button;
+            return this;
+        }
+
+        /**
+         * Sets the previous page button, replacing the button of the menu when published.
+         *
+         * @param button The button. Cannot be null.
+         * @return This builder.
+         * @throws NullPointerException if the button is null.
+         */
+        @NotNull
+        public Builder previousPageButton(@NotNull MenuButton button) {
+            Preconditions.checkNotNull(button, "Previous page button cannot be null");
+
+            this.previousPageButton = button;
+            return this;
+        }
+
+        /**
+         * Builds the model. The builder can keep being used afterwards without affecting the model.
+         *
+         * @return The model.
+         */
+        @NotNull
+        public MenuModel build() {
+            return new MenuModel(this);
+        }
+    }
+}
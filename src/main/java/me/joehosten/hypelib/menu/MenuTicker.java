@@ -0,0 +1,205 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.joehosten.hypelib.util.Tasks;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drives the animations and periodic refreshes of every open menu from a single task.
+ * <p>
+ * Open menus are tracked through the {@link me.joehosten.hypelib.menu.listener.MenuListener}. Menus implementing
+ * {@link TickingMenu} are animated and refreshed at their own intervals, and refreshes requested during a tick are
+ * coalesced, so a viewer is refreshed at most once per tick. A menu stops being ticked when its last viewer
+ * closes it, and the task stops when no menu is open.
+ */
+public final class MenuTicker {
+
+    private static final Map<InteractiveMenu, Entry> MENUS = Maps.newLinkedHashMap();
+    private static final Set<Refresh> PENDING = Sets.newLinkedHashSet();
+
+    private static BukkitTask task;
+    private static long tick;
+
+    private MenuTicker() {
+    }
+
+    /**
+     * Starts tracking a viewer of a menu. This is called by the menu listener when a menu is opened.
+     *
+     * @param menu   The opened menu.
+     * @param player The viewer.
+     */
+    public static void opened(@NotNull InteractiveMenu menu, @NotNull Player player) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        MENUS.computeIfAbsent(menu, Entry::new).viewers.add(player);
+
+        if (task == null) task = Tasks.run(MenuTicker::tick, 1, 1);
+    }
+
+    /**
+     * Stops tracking a viewer of a menu, and the menu itself once its last viewer closed it.
+     * This is called by the menu listener when a menu is closed.
+     *
+     * @param menu   The closed menu.
+     * @param player The viewer.
+     */
+    public static void closed(@NotNull InteractiveMenu menu, @NotNull Player player) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Entry entry = MENUS.get(menu);
+        if (entry == null) return;
+
+        entry.viewers.remove(player);
+        PENDING.remove(new Refresh(menu, player));
+
+        if (!entry.viewers.isEmpty()) return;
+
+        MENUS.remove(menu);
+
+        if (MENUS.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Requests a refresh of a menu for a viewer. The ticker task applies pending refreshes at the end of each run,
+     * after the frames and interval refreshes of that run, so a request made from {@link TickingMenu#onFrame} is
+     * applied in the same run, and any other request on the next run, during the next server tick.
+     * Requests for the same viewer before they are applied result in a single refresh.
+     *
+     * @param menu   The menu to refresh.
+     * @param player The viewer to refresh it for.
+     */
+    public static void requestRefresh(@NotNull InteractiveMenu menu, @NotNull Player player) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Entry entry = MENUS.get(menu);
+        if (entry == null || !entry.viewers.contains(player)) return;
+
+        PENDING.add(new Refresh(menu, player));
+    }
+
+    /**
+     * Requests a refresh of a menu for every viewer, applied as {@link #requestRefresh(InteractiveMenu, Player)} describes.
+     *
+     * @param menu The menu to refresh.
+     */
+    public static void requestRefresh(@NotNull InteractiveMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        Entry entry = MENUS.get(menu);
+        if (entry == null) return;
+
+        for (Player viewer : entry.viewers) PENDING.add(new Refresh(menu, viewer));
+    }
+
+    /**
+     * Checks whether a menu is open for at least one viewer.
+     *
+     * @param menu The menu.
+     * @return Whether the menu is open.
+     */
+    public static boolean isOpen(@NotNull InteractiveMenu menu) {
+        return MENUS.containsKey(menu);
+    }
+
+    /**
+     * Returns the number of menus that are open.
+     *
+     * @return The number of open menus.
+     */
+    public static int getOpenMenus() {
+        return MENUS.size();
+    }
+
+    private static void tick() {
+        tick++;
+
+        for (Map.Entry<InteractiveMenu, Entry> open : List.copyOf(MENUS.entrySet())) {
+            if (!(open.getKey() instanceof TickingMenu ticking)) continue;
+
+            InteractiveMenu menu = open.getKey();
+            Entry entry = open.getValue();
+
+            long frameInterval = ticking.frameInterval();
+            if (frameInterval > 0 && tick >= entry.nextFrame) {
+                entry.nextFrame = tick + frameInterval;
+
+                long frame = entry.frame++;
+                for (Player viewer : List.copyOf(entry.viewers)) ticking.onFrame(viewer, frame);
+            }
+
+            long refreshInterval = ticking.refreshInterval();
+            if (refreshInterval > 0 && tick >= entry.nextRefresh) {
+                entry.nextRefresh = tick + refreshInterval;
+
+                requestRefresh(menu);
+            }
+        }
+
+        if (PENDING.isEmpty()) return;
+
+        List<Refresh> refreshes = List.copyOf(PENDING);
+        PENDING.clear();
+
+        for (Refresh refresh : refreshes) {
+            Entry entry = MENUS.get(refresh.menu());
+            if (entry == null || !entry.viewers.contains(refresh.player())) continue;
+
+            refresh.menu().refresh(refresh.player());
+        }
+    }
+
+    private static final class Entry {
+
+        private final Set<Player> viewers = Sets.newLinkedHashSet();
+        private long nextFrame;
+        private long nextRefresh;
+        private long frame;
+
+        private Entry(@NotNull InteractiveMenu menu) {
+            this.nextFrame = tick + 1;
+            this.nextRefresh = menu instanceof TickingMenu ticking ? tick + ticking.refreshInterval() : tick;
+        }
+    }
+
+    private record Refresh(InteractiveMenu menu, Player player) {
+    }
+}
@@ -28,12 +28,15 @@ package me.joehosten.hypelib.menu;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import me.joehosten.hypelib.AluminaPlugin;
+import me.joehosten.hypelib.logger.Logs;
 import me.joehosten.hypelib.menu.holder.PaginatedMenuHolder;
 import me.joehosten.hypelib.util.MathUtil;
 import me.joehosten.hypelib.util.MiniMessageUtil;
 import me.joehosten.hypelib.util.NBTEditor;
+import me.joehosten.hypelib.util.Tasks;
 import lombok.Setter;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
@@ -43,6 +46,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
@@ -50,11 +54,15 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * A paginated menu that can be used to display a large number of items in a Chest Menu environment.
@@ -73,6 +81,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
     @Setter
     private boolean cancelClicks = false;
+    private boolean pooled = false;
 
     private MenuButton nextPageButton;
     private MenuButton previousPageButton;
@@ -82,6 +91,24 @@ public abstract class PaginatedMenu implements InteractiveMenu {
     protected final Set<Integer> paginatedSlots;
 
     protected Inventory inventory;
+    private Component inventoryTitle;
+
+    private ButtonIndex index;
+    private int[] slotOrder;
+
+    private ListingSource source;
+    private final Map<Integer, CompletableFuture<Page>> pages = Maps.newHashMap();
+    private CompletableFuture<Page> awaiting;
+    private int pageLimit = -1;
+    private int generation;
+    private int count = -1;
+
+    @Setter
+    private boolean asyncListings = false;
+    private MenuButton loadingButton;
+
+    private ListingSearch search;
+    private String query;
 
     /**
      * Represents a paginated menu with a title and specified number of rows.
@@ -98,7 +125,9 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         this.listings = Sets.newLinkedHashSet();
         this.paginatedSlots = Sets.newHashSet();
 
-        this.inventory = Bukkit.createInventory(new PaginatedMenuHolder(this), rows * 9, this.title);
+        this.inventory = createInventory();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -116,7 +145,9 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         this.listings = Sets.newLinkedHashSet();
         this.paginatedSlots = Sets.newHashSet();
 
-        this.inventory = Bukkit.createInventory(new PaginatedMenuHolder(this), rows * 9, this.title);
+        this.inventory = createInventory();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -127,6 +158,8 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         this.buttons = Sets.newLinkedHashSet();
         this.listings = Sets.newLinkedHashSet();
         this.paginatedSlots = Sets.newHashSet();
+
+        MenuLifecycle.track(this);
     }
 
     /**
@@ -153,6 +186,30 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
     }
 
+    /**
+     * Called when a player drags items over the inventory. Drags over the menu are cancelled when clicks are cancelled,
+     * otherwise the dragged slots of the menu are written again on the next refresh.
+     *
+     * @param player The player who dragged items.
+     * @param event  The inventory drag event.
+     */
+    @Override
+    public void onDrag(@NotNull Player player, @NotNull InventoryDragEvent event) {
+        if (!cancelClicks) {
+            index().invalidate(event);
+            return;
+        }
+
+        int size = event.getView().getTopInventory().getSize();
+        for (int slot : event.getRawSlots()) {
+            if (slot >= size) continue;
+
+            event.setCancelled(true);
+            event.setResult(Event.Result.DENY);
+            return;
+        }
+    }
+
     /**
      * Called when the player clicks on the inventory associated with this menu.
      * @param player the player who clicked on the inventory
@@ -164,33 +221,149 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         if (cancelClicks) {
             event.setCancelled(true);
             event.setResult(Event.Result.DENY);
+        } else {
+            index().invalidate(event);
         }
 
         ItemStack current = event.getCurrentItem();
         if (current == null) return;
 
+        MenuButton button = findButton(event, current);
+        if (button == null) return;
+
+        button.process(player, event);
+    }
+
+    /**
+     * Finds the button that was clicked, by slot within the menu and by the tagged id elsewhere.
+     *
+     * @param event   The inventory click event.
+     * @param current The clicked item.
+     * @return The clicked button, or null if no button was clicked.
+     */
+    @Nullable
+    private MenuButton findButton(@NotNull InventoryClickEvent event, @NotNull ItemStack current) {
+        ButtonIndex index = index();
+
+        int raw = event.getRawSlot();
+        if (raw >= 0 && raw < index.size()) return index.bySlot(raw);
+
         ItemMeta meta = current.getItemMeta();
-        if (meta == null) return;
+        if (meta == null) return null;
+
+        Integer id = NBTEditor.get(meta, FUNCTION, PersistentDataType.INTEGER);
+        return id == null ? null : index.byId(id);
+    }
+
+    /**
+     * Writes a slot, unless it already shows the current item of the button.
+     *
+     * @param index  The button index.
+     * @param slot   The slot to write.
+     * @param button The button to show, or null to empty the slot.
+     */
+    private boolean render(@NotNull ButtonIndex index, int slot, @Nullable MenuButton button) {
+        if (index.isCurrent(slot, button)) return false;
+
+        index.set(slot, button);
+        inventory.setItem(slot, button == null ? null : button.render(FUNCTION));
+        return true;
+    }
+
+    /**
+     * Checks whether a button has no item to show.
+     *
+     * @param button The button.
+     * @return True if the item of the button is missing or air.
+     */
+    private static boolean isEmpty(@NotNull MenuButton button) {
+        ItemStack item = button.getItem();
+        return item == null || item.getType().isAir();
+    }
+
+    /**
+     * Marks a button as changed, so the next {@link #refresh(Player)} writes it again.
+     * Only needed after modifying the item of the button directly, {@link MenuButton#updateItem} already does this.
+     *
+     * @param button The button that changed. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void markDirty(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        button.markDirty();
+    }
+
+    /**
+     * Marks every slot as changed, so the next {@link #refresh(Player)} writes the whole inventory again.
+     */
+    public void markDirty() {
+        index().invalidate();
+    }
 
-        List<MenuButton> all = Lists.newArrayList(buttons);
-        all.addAll(listings);
-        all.add(nextPageButton);
-        all.add(previousPageButton);
+    /**
+     * Returns the button index, recreated when the size of the inventory changed.
+     *
+     * @return The button index.
+     */
+    private ButtonIndex index() {
+        int size = inventory == null ? rows * 9 : inventory.getSize();
+        if (index == null || index.size() != size) index = new ButtonIndex(size);
+
+        return index;
+    }
 
-        String function = NBTEditor.get(meta, FUNCTION, PersistentDataType.STRING);
-        if (function == null) {
-            // Check by slot.
-            MenuButton button = all.stream().filter(menuButton -> menuButton.getSlot() == event.getSlot()).findFirst().orElse(null);
-            if (button == null) return;
+    /**
+     * Takes an inventory for this menu from the {@link MenuLifecycle} pool, or creates one.
+     *
+     * @return The inventory, bound to this menu.
+     */
+    private Inventory createInventory() {
+        Inventory created = MenuLifecycle.acquire(PaginatedMenuHolder.class, rows * 9, title, () -> new PaginatedMenuHolder(this));
+
+        PaginatedMenuHolder holder = (PaginatedMenuHolder) created.getHolder();
+        holder.bind(this);
+        holder.setInventory(created);
+
+        inventoryTitle = title;
+        return created;
+    }
+
+    /**
+     * Releases the resources of the menu once nobody views it. The rendered buttons are forgotten, so opening the
+     * menu again writes every slot. The inventory of the menu is kept, unless the menu is {@link #setPooled(boolean) pooled}.
+     */
+    @Override
+    public void release() {
+        if (inventory == null || !inventory.getViewers().isEmpty()) return;
 
-            button.process(player, event);
+        ButtonIndex index = index();
+        index.clear();
+
+        if (!pooled) {
+            index.invalidate();
             return;
         }
 
-        MenuButton button = all.stream().filter(menuButton -> menuButton.uuid().toString().equals(function)).findFirst().orElse(null);
-        if (button == null) return;
+        Inventory released = inventory;
+        inventory = null;
 
-        button.process(player, event);
+        ((PaginatedMenuHolder) released.getHolder()).unbind();
+        MenuLifecycle.release(released, inventoryTitle);
+
+        inventoryTitle = null;
+    }
+
+    /**
+     * Sets whether the inventory of the menu is returned to the {@link MenuLifecycle} pool when the menu is
+     * released, with its holder unbound, so neither keeps this menu alive. The menu takes an inventory again when it
+     * is opened. While released, the {@code inventory} of a pooled menu is null, and it must not be used by
+     * references kept from before the release, since another menu may have taken it. Menus are not pooled by default.
+     *
+     * @param pooled Whether the inventory is pooled.
+     */
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
     }
 
     /**
@@ -203,7 +376,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
     public void open(@NotNull Player player) {
         Preconditions.checkNotNull(player, "Player cannot be null");
 
-        if (inventory == null) inventory = Bukkit.createInventory(new PaginatedMenuHolder(this), rows * 9, title);
+        if (inventory == null) inventory = createInventory();
 
         refresh(player);
 
@@ -212,84 +385,299 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
     /**
      * Refreshes the inventory of the menu for the specified player.
-     * This method clears the inventory and populates it with updated buttons and listings.
+     * Only the slots whose button or item changed since the last refresh are written,
+     * so changing page rewrites the listing slots and leaves the static buttons alone.
      *
      * @param player The player for whom to refresh the inventory. Must not be null.
      * @throws NullPointerException if the player parameter is null.
      */
     @Override
     public void refresh(@NotNull Player player) {
-        inventory.clear();
+        if (inventory == null) return;
+
+        boolean recording = MenuMetrics.isRecording(this);
+        long start = recording ? System.nanoTime() : 0L;
+
+        ButtonIndex index = index();
+        MenuButton[] layout = index.layout();
 
         for (MenuButton button : buttons) {
             int slot = button.getSlot();
-            if (isSlotOccupied(slot) || !button.canView(player)) continue;
+            if (isSlotOccupied(index, slot) || !button.canView(player) || isEmpty(button)) continue;
 
-            ItemStack item = button.getItem();
-            ItemMeta meta = item.getItemMeta();
-            if (meta == null) continue;
+            if (slot == -1) slot = index.freeSlot();
+            if (slot == -1) continue;
 
-            NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, button.uuid().toString());
+            index.place(slot, button);
+        }
 
-            item.setItemMeta(meta);
+        int[] listingSlots = slotOrder();
+        int limit = listingSlots.length;
 
-            if (slot == -1) slot = getFreeSlot();
-            if (slot == -1) continue;
+        List<MenuButton> items = pageListings(player, limit);
 
-            inventory.setItem(slot, item);
+        for (int i = 0; i < items.size() && i < limit; i++) {
+            MenuButton item = items.get(i);
+            if (isEmpty(item) || source != null && !item.canView(player)) continue;
+
+            index.place(listingSlots[i], item);
         }
 
-        List<Integer> listingSlots = Lists.newArrayList(paginatedSlots);
-        int limit = listingSlots.size();
+        if (page > 1) {
+            Preconditions.checkNotNull(previousPageButton, "Previous page button cannot be null");
 
-        List<MenuButton> items = listings.stream().filter(button -> button.canView(player))
-                .skip((long) (page - 1) * limit)
-                .limit(limit)
-                .toList();
+            if (!isEmpty(previousPageButton)) index.place(previousPageButton.getSlot(), previousPageButton);
+        }
 
-        for (MenuButton item : items) {
-            int available = listingSlots.stream().min(Comparator.comparingInt(value -> value)).orElse(-1);
-            if (available == -1) break;
+        if (listingCount() > (page * limit)) {
+            Preconditions.checkNotNull(nextPageButton, "Next page button cannot be null");
 
-            listingSlots.remove(Integer.valueOf(available));
+            if (!isEmpty(nextPageButton)) index.place(nextPageButton.getSlot(), nextPageButton);
+        }
 
-            ItemStack itemStack = item.getItem();
-            ItemMeta meta = itemStack.getItemMeta();
-            if (meta == null) continue;
+        int written = 0;
+        for (int slot = 0; slot < layout.length; slot++) {
+            if (render(index, slot, layout[slot])) written++;
+        }
 
-            NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, item.uuid().toString());
+        if (recording) MenuMetrics.refreshed(this, System.nanoTime() - start, written);
+    }
 
-            itemStack.setItemMeta(meta);
+    /**
+     * Returns the listings shown on the current page. Without a {@link ListingSource} these are the listings
+     * the player can view, otherwise the page is requested from the source and cached.
+     * <p>
+     * With {@link #setAsyncListings(boolean) async listings}, pages are requested off the main thread and the
+     * previous and next pages are prefetched. While the current page is loading, its slots show the
+     * {@link #setLoadingButton(MenuButton) loading button}, and the menu is refreshed once the page arrived or
+     * failed, unless the page changed or the listings were reloaded in the meantime. A failed page is shown empty.
+     *
+     * @param player The player viewing the menu.
+     * @param limit  The number of listings per page.
+     * @return The listings of the current page.
+     */
+    @NotNull
+    private List<MenuButton> pageListings(@NotNull Player player, int limit) {
+        if (source == null) {
+            return searchedListings().stream().filter(button -> button.canView(player))
+                    .skip((long) (page - 1) * limit)
+                    .limit(limit)
+                    .toList();
+        }
 
-            inventory.setItem(available, itemStack);
+        if (limit != pageLimit) {
+            reloadListings();
+            pageLimit = limit;
         }
 
-        if (page > 1) {
-            Preconditions.checkNotNull(previousPageButton, "Previous page button cannot be null");
+        CompletableFuture<Page> current = loadPage(page, limit);
+        boolean loaded = current.isDone() && !current.isCompletedExceptionally();
+        if (loaded) count = current.join().count();
+
+        if (asyncListings) {
+            if (page > 1) loadPage(page - 1, limit);
+            if (listingCount() > page * limit) loadPage(page + 1, limit);
+        }
+
+        int kept = asyncListings ? 1 : 0;
+        pages.keySet().removeIf(number -> Math.abs(number - page) > kept);
 
-            ItemStack item = previousPageButton.getItem();
-            ItemMeta meta = item.getItemMeta();
-            if (meta == null) return;
+        if (loaded) return current.join().buttons();
+        if (current.isDone()) return List.of();
 
-            NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, previousPageButton.uuid().toString());
+        if (awaiting != current) {
+            awaiting = current;
 
-            item.setItemMeta(meta);
+            int requested = page;
+            int expected = generation;
+            current.whenComplete((arrived, throwable) -> Tasks.run(() -> {
+                if (page != requested || generation != expected) return;
+                if (inventory == null || !inventory.getViewers().contains(player)) return;
 
-            inventory.setItem(previousPageButton.getSlot(), item);
+                refresh(player);
+            }));
         }
 
-        if (listings.size() > (page * limit)) {
-            Preconditions.checkNotNull(nextPageButton, "Next page button cannot be null");
+        return loadingButton == null ? List.of() : Collections.nCopies(limit, loadingButton);
+    }
 
-            ItemStack item = nextPageButton.getItem();
-            ItemMeta meta = item.getItemMeta();
-            if (meta == null) return;
+    /**
+     * Requests a page from the {@link ListingSource}, unless it is cached already.
+     * Failed pages stay cached as failed until the listings are reloaded.
+     *
+     * @param number The page number.
+     * @param limit  The number of listings per page.
+     * @return The future of the page.
+     */
+    @NotNull
+    private CompletableFuture<Page> loadPage(int number, int limit) {
+        return pages.computeIfAbsent(number, key -> {
+            ListingSource source = this.source;
+            int offset = (number - 1) * limit;
 
-            NBTEditor.set(meta, FUNCTION, PersistentDataType.STRING, nextPageButton.uuid().toString());
+            if (!asyncListings) return CompletableFuture.completedFuture(Page.load(source, offset, limit));
 
-            item.setItemMeta(meta);
+            return Tasks.await(() -> Page.load(source, offset, limit)).whenComplete((loaded, throwable) -> {
+                if (throwable != null) Logs.severe("Failed to load page " + number + " of " + getClass().getSimpleName() + ": " + throwable.getMessage());
+            });
+        });
+    }
 
-            inventory.setItem(nextPageButton.getSlot(), item);
+    /**
+     * Returns the total number of listings. With {@link #setAsyncListings(boolean) async listings},
+     * this is the count loaded with the last page, seeded from the source before the first page arrived,
+     * so the page buttons and bounds are right on the first render.
+     *
+     * @return The number of listings.
+     */
+    private int listingCount() {
+        if (source == null) return searchedListings().size();
+        if (!asyncListings) return source.count();
+
+        if (count < 0) count = source.count();
+        return count;
+    }
+
+    /**
+     * Returns the listings matching the current search query, or every listing when there is no query.
+     *
+     * @return The searched listings.
+     */
+    @NotNull
+    private Collection<MenuButton> searchedListings() {
+        return query == null ? listings : search.search(listings, query);
+    }
+
+    /**
+     * Attaches a search index over the listings, used by {@link #search(Player, String)}.
+     * Searching is not supported with a {@link ListingSource}, which can filter by itself.
+     *
+     * @param search The search index, or null to detach it and clear the query.
+     */
+    public void setListingSearch(@Nullable ListingSearch search) {
+        this.search = search;
+        this.query = null;
+
+        if (search != null) search.invalidate();
+    }
+
+    /**
+     * Shows the listings matching a query, starting from the first page. The matching listings are
+     * paginated like the full listings, and the results of recent queries are cached by the search index.
+     *
+     * @param player The player to refresh the menu for. Must not be null.
+     * @param query  The query, or null or blank to show every listing again.
+     * @throws IllegalStateException if no search index is attached, or the listings come from a source.
+     */
+    public void search(@NotNull Player player, @Nullable String query) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkState(search != null, "No listing search is attached");
+        Preconditions.checkState(source == null, "Listings from a source cannot be searched");
+
+        this.query = query == null || query.isBlank() ? null : query;
+        this.page = 1;
+
+        refresh(player);
+    }
+
+    /**
+     * Returns the current search query.
+     *
+     * @return The query, or null if every listing is shown.
+     */
+    @Nullable
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the paginated slots in ascending order, computed again whenever the slots changed, including changes
+     * made through {@link #paginatedSlots()} or by subclasses.
+     *
+     * @return The ordered paginated slots.
+     */
+    private int[] slotOrder() {
+        if (slotOrder == null || !isSlotOrderCurrent()) {
+            slotOrder = paginatedSlots.stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+
+        return slotOrder;
+    }
+
+    /**
+     * Checks whether the cached slot order holds the current paginated slots. Menus have at most 54 slots.
+     *
+     * @return Whether the slot order is current.
+     */
+    private boolean isSlotOrderCurrent() {
+        if (slotOrder.length != paginatedSlots.size()) return false;
+
+        for (int slot : slotOrder) {
+            if (!paginatedSlots.contains(slot)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the source of the listings, which then replaces the {@link #listings()} set.
+     * Only the buttons of the visible page are requested from the source.
+     *
+     * @param source The listing source, or null to use the listings set again.
+     */
+    public void setListingSource(@Nullable ListingSource source) {
+        this.source = source;
+        this.count = -1;
+        this.query = null;
+
+        reloadListings();
+    }
+
+    /**
+     * Drops the pages cached from the {@link ListingSource}, so the next refresh requests them again.
+     * Pages still loading are discarded when they arrive. Call this when the data behind the source changed.
+     */
+    public void reloadListings() {
+        this.pages.clear();
+        this.awaiting = null;
+        this.generation++;
+    }
+
+    /**
+     * Drops the cached pages that a change at the given rank of the {@link ListingSource} moved, which are the page
+     * holding the rank and every page after it. Pages before it stay cached, so a change on a later page does not
+     * reload the current one. A page still loading is only discarded when the current page was dropped.
+     * Ranks are returned by the modifying methods of {@link SortedListings}.
+     *
+     * @param rank The rank of the listing that was added, removed or moved, or -1 to do nothing.
+     */
+    public void reloadListings(int rank) {
+        if (rank < 0 || pageLimit <= 0) return;
+
+        pages.keySet().removeIf(number -> (long) number * pageLimit > rank);
+        if ((long) page * pageLimit <= rank) return;
+
+        this.awaiting = null;
+        this.generation++;
+    }
+
+    /**
+     * Sets the button shown in the listing slots while a page is loading with
+     * {@link #setAsyncListings(boolean) async listings}. The slot of the button is ignored.
+     *
+     * @param button The loading button, or null to leave the listing slots empty while loading.
+     */
+    public void setLoadingButton(@Nullable MenuButton button) {
+        this.loadingButton = button;
+    }
+
+    private record Page(int count, List<MenuButton> buttons) {
+
+        static Page load(@NotNull ListingSource source, int offset, int limit) {
+            List<MenuButton> buttons = source.page(offset, limit);
+            Preconditions.checkNotNull(buttons, "Page cannot be null");
+
+            return new Page(source.count(), buttons);
         }
     }
 
@@ -319,32 +707,115 @@ public abstract class PaginatedMenu implements InteractiveMenu {
     }
 
     /**
-     * Returns the index of the first free slot in the inventory.
+     * Builds a {@link MenuModel} on a worker thread, and renders the item of each of its buttons there as well.
+     * The returned future completes on the worker thread, so the model has to be published on the main thread.
      *
-     * @return The index of the first free slot, or -1 if there are no free slots.
+     * @param spec Fills the builder of the model. Runs on the worker thread. Cannot be null.
+     * @return A future completed with the model.
+     * @throws NullPointerException if the spec is null.
      */
-    private int getFreeSlot() {
-        int index = 0;
-        for (ItemStack content : inventory.getContents()) {
-            if (content == null) return index;
+    @NotNull
+    public CompletableFuture<MenuModel> buildModel(@NotNull Consumer<MenuModel.Builder> spec) {
+        Preconditions.checkNotNull(spec, "Spec cannot be null");
 
-            index++;
-        }
-        return -1;
+        return Tasks.await(() -> {
+            MenuModel.Builder builder = MenuModel.builder();
+            spec.accept(builder);
+
+            MenuModel model = builder.build();
+            for (MenuButton button : model.buttons()) prerender(button);
+            for (MenuButton button : model.listings()) prerender(button);
+            prerender(model.nextPageButton());
+            prerender(model.previousPageButton());
+
+            return model;
+        });
+    }
+
+    private void prerender(@Nullable MenuButton button) {
+        if (button != null && !isEmpty(button)) button.render(FUNCTION);
+    }
+
+    /**
+     * Replaces the buttons and listings of the menu with the ones of a model, along with its listing slots and page
+     * buttons if it has any. Listing slots outside the menu are left out. The page is kept if it still exists.
+     * Call {@link #refresh(Player)} afterwards to show the model to the viewers of the menu.
+     *
+     * @param model The model to publish. Cannot be null.
+     * @throws NullPointerException  if the model is null.
+     * @throws IllegalStateException if called off the main thread.
+     */
+    public void publish(@NotNull MenuModel model) {
+        Preconditions.checkNotNull(model, "Model cannot be null");
+        Preconditions.checkState(Bukkit.isPrimaryThread(), "Models must be published on the main thread");
+
+        this.buttons.clear();
+        this.buttons.addAll(model.buttons());
+
+        int[] slots = model.paginatedSlots();
+        if (slots != null) setPaginatedSlots(SlotLayout.of(slots));
+
+        if (model.nextPageButton() != null) this.nextPageButton = model.nextPageButton();
+        if (model.previousPageButton() != null) this.previousPageButton = model.previousPageButton();
+
+        setPaginatedButtons(model.listings());
+
+        int last = paginatedSlots.isEmpty() ? 1 : (int) Math.ceil((double) listingCount() / paginatedSlots.size());
+        if (page > Math.max(last, 1)) page = 1;
+    }
+
+    /**
+     * Builds a {@link MenuModel} on a worker thread, then publishes it and opens the menu for the player
+     * in a single step on the main thread. The menu is not opened if the player left in the meantime.
+     *
+     * @param player The player to open the menu for. Cannot be null.
+     * @param spec   Fills the builder of the model. Runs on the worker thread. Cannot be null.
+     * @return A future completed once the model is published, or completed exceptionally if building or publishing it failed.
+     * @throws NullPointerException if the player or the spec is null.
+     */
+    @NotNull
+    public CompletableFuture<Void> openAsync(@NotNull Player player, @NotNull Consumer<MenuModel.Builder> spec) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkNotNull(spec, "Spec cannot be null");
+
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        buildModel(spec).whenComplete((model, throwable) -> {
+            if (throwable != null) {
+                Logs.severe("Failed to build " + getClass().getSimpleName() + ": " + throwable.getMessage());
+                published.completeExceptionally(throwable);
+                return;
+            }
+
+            Tasks.run(() -> {
+                try {
+                    publish(model);
+                    if (player.isOnline()) open(player);
+                } catch (Exception exception) {
+                    Logs.severe("Failed to publish " + getClass().getSimpleName() + ": " + exception.getMessage());
+                    published.completeExceptionally(exception);
+                    return;
+                }
+
+                published.complete(null);
+            });
+        });
+
+        return published;
     }
 
     /**
-     * Checks if a slot in the inventory is occupied.
+     * Checks if a slot in the layout being built by a refresh is occupied.
      *
-     * @param slot The index of the slot to check. Use -1 to check if any free slot is available.
+     * @param index The button index holding the layout.
+     * @param slot  The index of the slot to check. Use -1 to check if any free slot is available.
      * @return True if the slot is occupied, false otherwise.
      */
-    private boolean isSlotOccupied(int slot) {
-        if (slot == -1) return getFreeSlot() == -1;
+    private boolean isSlotOccupied(@NotNull ButtonIndex index, int slot) {
+        if (slot == -1) return index.freeSlot() == -1;
 
         Preconditions.checkArgument(MathUtil.between(slot, 0, rows * 9), "Slot must be between 0 and " + (rows * 9));
 
-        return inventory.getItem(slot) != null;
+        return index.isPlaced(slot);
     }
 
     /**
@@ -370,8 +841,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
         this.title = MiniMessageUtil.translate(input);
 
-        if (inventory == null)
-            inventory = Bukkit.createInventory(new PaginatedMenuHolder(this), rows * 9, title);
+        if (inventory == null) return;
 
         for (HumanEntity viewer : inventory.getViewers()) {
             InventoryView view = viewer.getOpenInventory();
@@ -392,8 +862,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
         this.title = input;
 
-        if (inventory == null)
-            inventory = Bukkit.createInventory(new PaginatedMenuHolder(this), rows * 9, title);
+        if (inventory == null) return;
 
         for (HumanEntity viewer : inventory.getViewers()) {
             InventoryView view = viewer.getOpenInventory();
@@ -438,6 +907,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
         this.paginatedSlots.clear();
         this.paginatedSlots.addAll(slots);
+        this.slotOrder = null;
     }
 
     /**
@@ -453,6 +923,26 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         for (int slot : slots) {
             this.paginatedSlots.add(slot);
         }
+        this.slotOrder = null;
+    }
+
+    /**
+     * Sets the slots that are used for pagination in the menu from a compiled layout.
+     * The slots of the layout outside the menu, such as the lower rows of a column, are left out.
+     *
+     * @param layout The layout of the slots. Must not be null.
+     * @throws NullPointerException if the layout is null.
+     */
+    public void setPaginatedSlots(@NotNull SlotLayout layout) {
+        Preconditions.checkNotNull(layout, "Layout cannot be null");
+
+        int[] slots = layout.within(rows * 9).slots();
+
+        this.paginatedSlots.clear();
+        for (int slot : slots) {
+            this.paginatedSlots.add(slot);
+        }
+        this.slotOrder = slots;
     }
 
     /**
@@ -466,6 +956,22 @@ public abstract class PaginatedMenu implements InteractiveMenu {
 
         this.listings.clear();
         this.listings.addAll(buttons);
+
+        if (search != null) search.invalidate();
+    }
+
+    /**
+     * Adds a paginated button to the menu.
+     *
+     * @param button The button to be added. Must not be null.
+     * @throws NullPointerException if the button parameter is null.
+     */
+    public void addPaginatedButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        this.listings.add(button);
+
+        if (search != null) search.invalidate();
     }
 
     /**
@@ -478,6 +984,8 @@ public abstract class PaginatedMenu implements InteractiveMenu {
         Preconditions.checkNotNull(button, "Button cannot be null");
 
         this.listings.remove(button);
+
+        if (search != null) search.invalidate();
     }
 
     /**
@@ -514,7 +1022,7 @@ public abstract class PaginatedMenu implements InteractiveMenu {
      */
     public void changePage(Player player, int page) {
         Preconditions.checkArgument(page > 0, "Page must be greater than 0");
-        Preconditions.checkArgument(page <= Math.ceil((double) listings.size() / paginatedSlots.size()), "Page must be less than or equal to " + Math.ceil((double) listings.size() / paginatedSlots.size()));
+        Preconditions.checkArgument(page <= Math.ceil((double) listingCount() / paginatedSlots.size()), "Page must be less than or equal to " + Math.ceil((double) listingCount() / paginatedSlots.size()));
         Preconditions.checkNotNull(player, "Player cannot be null");
 
         this.page = page;
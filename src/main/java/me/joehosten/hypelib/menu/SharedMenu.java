@@ -0,0 +1,649 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.joehosten.hypelib.AluminaPlugin;
+import me.joehosten.hypelib.menu.holder.SharedMenuHolder;
+import me.joehosten.hypelib.util.MathUtil;
+import me.joehosten.hypelib.util.MiniMessageUtil;
+import me.joehosten.hypelib.util.NBTEditor;
+import me.joehosten.hypelib.util.Tasks;
+import lombok.Setter;
+import net.kyori.adventure.text.Component;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A menu shown to many players at once, such as a shop, that keeps a single definition for all of its viewers.
+ * <p>
+ * The shared buttons are laid out once for every viewer. Only what differs between viewers is kept per player:
+ * the inventory, the current page, the view-filtered buttons and the personal buttons created for the player.
+ * The items of all buttons are rendered once and shared by every viewer.
+ */
+public abstract class SharedMenu implements InteractiveMenu {
+
+    private static final int MIN_ROWS = 1;
+    private static final int MAX_ROWS = 6;
+
+    private static final NamespacedKey FUNCTION = new NamespacedKey(AluminaPlugin.getAluminaInstance(), "shared-menu-function");
+
+    private final Component title;
+    private final int rows;
+
+    @Setter
+    private boolean cancelClicks = false;
+
+    private final Set<MenuButton> buttons = Sets.newLinkedHashSet();
+    private final Set<MenuButton> viewerButtons = Sets.newLinkedHashSet();
+    private final List<Function<Player, MenuButton>> personalButtons = Lists.newArrayList();
+    private final Set<MenuButton> listings = Sets.newLinkedHashSet();
+    private int[] paginatedSlots = new int[0];
+
+    private MenuButton nextPageButton;
+    private MenuButton previousPageButton;
+
+    private final Map<UUID, Viewer> viewers = Maps.newHashMap();
+    private ButtonIndex common;
+
+    /**
+     * Represents a shared menu with a specific title and number of rows.
+     */
+    public SharedMenu(@NotNull String title, int rows) {
+        Preconditions.checkNotNull(title, "Title cannot be null");
+        Preconditions.checkArgument(MathUtil.between(rows, MIN_ROWS, MAX_ROWS), "Rows must be between " + MIN_ROWS + " and " + MAX_ROWS);
+
+        this.title = MiniMessageUtil.translate(title);
+        this.rows = rows;
+
+        MenuLifecycle.track(this);
+    }
+
+    /**
+     * Represents a shared menu with a specific title and number of rows.
+     */
+    public SharedMenu(@NotNull Component title, int rows) {
+        Preconditions.checkNotNull(title, "Title cannot be null");
+        Preconditions.checkArgument(MathUtil.between(rows, MIN_ROWS, MAX_ROWS), "Rows must be between " + MIN_ROWS + " and " + MAX_ROWS);
+
+        this.title = title;
+        this.rows = rows;
+
+        MenuLifecycle.track(this);
+    }
+
+    /**
+     * Opens the menu for the specified player, creating the state of the player if they are not viewing it yet.
+     *
+     * @param player The player for whom the menu should be opened.
+     */
+    @Override
+    public void open(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer != null && player.getOpenInventory().getTopInventory() == viewer.inventory) {
+            refresh(player);
+            return;
+        }
+
+        if (viewer == null) {
+            Inventory inventory = MenuLifecycle.acquire(SharedMenuHolder.class, rows * 9, title, () -> new SharedMenuHolder(this));
+
+            SharedMenuHolder holder = (SharedMenuHolder) inventory.getHolder();
+            holder.bind(this);
+            holder.setInventory(inventory);
+
+            viewer = new Viewer(player, inventory, new ButtonIndex(rows * 9));
+            viewers.put(player.getUniqueId(), viewer);
+        }
+
+        render(viewer);
+
+        player.openInventory(viewer.inventory);
+    }
+
+    /**
+     * Refreshes the menu of a single viewer. Only the slots whose button or item changed are written.
+     *
+     * @param player The viewer to refresh. Must not be null.
+     */
+    @Override
+    public void refresh(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer == null) return;
+
+        render(viewer);
+    }
+
+    /**
+     * Refreshes the menu of every viewer.
+     */
+    public void refreshAll() {
+        for (Viewer viewer : viewers.values()) render(viewer);
+    }
+
+    /**
+     * Lays out the buttons for a viewer and writes the slots that changed.
+     * The shared layout is copied first, the view-filtered and personal buttons are laid over it,
+     * then the listings of the page of the viewer and the page buttons.
+     *
+     * @param viewer The viewer to render.
+     */
+    private void render(@NotNull Viewer viewer) {
+        boolean recording = MenuMetrics.isRecording(this);
+        long start = recording ? System.nanoTime() : 0L;
+
+        Player player = viewer.player;
+        ButtonIndex index = viewer.index;
+
+        MenuButton[] layout = index.layout(common());
+
+        for (MenuButton button : viewerButtons) {
+            if (isEmpty(button) || !button.canView(player)) continue;
+
+            place(index, button, true);
+        }
+
+        for (MenuButton button : personalButtons(viewer)) {
+            if (button == null || isEmpty(button)) continue;
+
+            place(index, button, true);
+        }
+
+        int limit = paginatedSlots.length;
+        int skip = (viewer.page - 1) * limit;
+        int visible = 0;
+        int placed = 0;
+        boolean hasNext = false;
+
+        for (MenuButton listing : listings) {
+            if (limit == 0) break;
+            if (!listing.canView(player) || visible++ < skip) continue;
+
+            if (placed == limit) {
+                hasNext = true;
+                break;
+            }
+
+            if (!isEmpty(listing)) index.place(paginatedSlots[placed], listing);
+            placed++;
+        }
+
+        if (viewer.page > 1) {
+            Preconditions.checkNotNull(previousPageButton, "Previous page button cannot be null");
+
+            if (!isEmpty(previousPageButton)) index.place(previousPageButton.getSlot(), previousPageButton);
+        }
+
+        if (hasNext) {
+            Preconditions.checkNotNull(nextPageButton, "Next page button cannot be null");
+
+            if (!isEmpty(nextPageButton)) index.place(nextPageButton.getSlot(), nextPageButton);
+        }
+
+        int written = 0;
+        for (int slot = 0; slot < layout.length; slot++) {
+            MenuButton button = layout[slot];
+            if (index.isCurrent(slot, button)) continue;
+
+            index.set(slot, button);
+            viewer.inventory.setItem(slot, button == null ? null : button.render(FUNCTION));
+            written++;
+        }
+
+        if (recording) MenuMetrics.refreshed(this, System.nanoTime() - start, written);
+    }
+
+    /**
+     * Returns the personal buttons of a viewer, created once and kept until they are
+     * {@link #markPersonalDirty(Player) marked dirty}, so unchanged personal slots are not written again.
+     *
+     * @param viewer The viewer.
+     * @return The personal buttons of the viewer, null where a function returned null.
+     */
+    private MenuButton[] personalButtons(@NotNull Viewer viewer) {
+        if (viewer.personal != null && viewer.personal.length == personalButtons.size()) return viewer.personal;
+
+        MenuButton[] personal = new MenuButton[personalButtons.size()];
+        for (int i = 0; i < personal.length; i++) personal[i] = personalButtons.get(i).apply(viewer.player);
+
+        return viewer.personal = personal;
+    }
+
+    /**
+     * Returns the layout of the shared buttons, computed once until the shared buttons change.
+     *
+     * @return The index holding the shared layout.
+     */
+    private ButtonIndex common() {
+        if (common != null) return common;
+
+        ButtonIndex layout = new ButtonIndex(rows * 9);
+        layout.layout();
+
+        for (MenuButton button : buttons) {
+            if (isEmpty(button)) continue;
+
+            place(layout, button, false);
+        }
+
+        return common = layout;
+    }
+
+    /**
+     * Places a button in a layout, at its own slot or at the first free slot if its slot is -1.
+     *
+     * @param index    The button index holding the layout.
+     * @param button   The button to place.
+     * @param override Whether the button replaces a button already placed at its slot.
+     */
+    private void place(@NotNull ButtonIndex index, @NotNull MenuButton button, boolean override) {
+        int slot = button.getSlot();
+        if (slot == -1) slot = index.freeSlot();
+        if (slot == -1) return;
+
+        Preconditions.checkArgument(slot >= 0 && slot < index.size(), "Slot must be between 0 and " + (index.size() - 1));
+
+        if (override || !index.isPlaced(slot)) index.place(slot, button);
+    }
+
+    /**
+     * Checks whether a button has no item to show.
+     *
+     * @param button The button.
+     * @return True if the item of the button is missing or air.
+     */
+    private static boolean isEmpty(@NotNull MenuButton button) {
+        ItemStack item = button.getItem();
+        return item == null || item.getType().isAir();
+    }
+
+    /**
+     * Called when a player opens the menu.
+     *
+     * @param player The player who opened the inventory.
+     * @param event The InventoryOpenEvent triggered by the player opening the inventory.
+     * @apiNote Override this method to perform actions when the player opens the inventory.
+     */
+    @Override
+    public void onOpen(@NotNull Player player, @NotNull InventoryOpenEvent event) {
+
+    }
+
+    /**
+     * Called when a player closes the menu, which forgets the state of the player and pools their inventory a tick later.
+     *
+     * @param player The player who closed the inventory.
+     * @param event The InventoryCloseEvent triggered by the player closing the inventory.
+     * @apiNote Call the super method when overriding this method, or the state of the player is kept.
+     */
+    @Override
+    public void onClose(@NotNull Player player, @NotNull InventoryCloseEvent event) {
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer == null || viewer.inventory != event.getInventory()) return;
+
+        viewers.remove(player.getUniqueId());
+        viewer.index.clear();
+
+        Tasks.run(() -> {
+            if (!viewer.inventory.getViewers().isEmpty()) return;
+
+            ((SharedMenuHolder) viewer.inventory.getHolder()).unbind();
+            MenuLifecycle.release(viewer.inventory, title);
+        });
+    }
+
+    /**
+     * Called when a player drags items over the inventory. Drags over the menu are cancelled when clicks are cancelled,
+     * otherwise the dragged slots of the menu are written again on the next refresh.
+     *
+     * @param player The player who dragged items.
+     * @param event  The inventory drag event.
+     */
+    @Override
+    public void onDrag(@NotNull Player player, @NotNull InventoryDragEvent event) {
+        if (!cancelClicks) {
+            Viewer viewer = viewers.get(player.getUniqueId());
+            if (viewer != null) viewer.index.invalidate(event);
+            return;
+        }
+
+        int size = event.getView().getTopInventory().getSize();
+        for (int slot : event.getRawSlots()) {
+            if (slot >= size) continue;
+
+            event.setCancelled(true);
+            event.setResult(Event.Result.DENY);
+            return;
+        }
+    }
+
+    /**
+     * Called when a player clicks on an inventory item.
+     *
+     * @param player The player who clicked.
+     * @param event  The inventory click event.
+     * @apiNote Do not override this method!!!!!! pretty please :)
+     */
+    @Override
+    public void onClick(@NotNull Player player, @NotNull InventoryClickEvent event) {
+        if (cancelClicks) {
+            event.setCancelled(true);
+            event.setResult(Event.Result.DENY);
+        }
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer == null) return;
+
+        if (!cancelClicks) viewer.index.invalidate(event);
+
+        ItemStack current = event.getCurrentItem();
+        if (current == null) return;
+
+        MenuButton button = findButton(viewer.index, event, current);
+        if (button == null) return;
+
+        button.process(player, event);
+    }
+
+    /**
+     * Finds the button that was clicked, by slot within the menu and by the tagged id elsewhere.
+     *
+     * @param index   The button index of the viewer.
+     * @param event   The inventory click event.
+     * @param current The clicked item.
+     * @return The clicked button, or null if no button was clicked.
+     */
+    @Nullable
+    private MenuButton findButton(@NotNull ButtonIndex index, @NotNull InventoryClickEvent event, @NotNull ItemStack current) {
+        int raw = event.getRawSlot();
+        if (raw >= 0 && raw < index.size()) return index.bySlot(raw);
+
+        ItemMeta meta = current.getItemMeta();
+        if (meta == null) return null;
+
+        Integer id = NBTEditor.get(meta, FUNCTION, PersistentDataType.INTEGER);
+        return id == null ? null : index.byId(id);
+    }
+
+    /**
+     * Changes the page shown to a viewer.
+     *
+     * @param player The viewer. Must not be null.
+     * @param page   The new page number. Must be greater than 0.
+     * @throws IllegalArgumentException if the page is less than or equal to 0.
+     * @throws NullPointerException if the player is null.
+     */
+    public void changePage(@NotNull Player player, int page) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkArgument(page > 0, "Page must be greater than 0");
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer == null) return;
+
+        viewer.page = page;
+
+        render(viewer);
+    }
+
+    /**
+     * Returns the page shown to a viewer.
+     *
+     * @param player The viewer. Must not be null.
+     * @return The page of the viewer, or 1 if the player is not viewing the menu.
+     */
+    public int getPage(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        return viewer == null ? 1 : viewer.page;
+    }
+
+    /**
+     * Returns the number of players viewing the menu.
+     *
+     * @return The number of viewers.
+     */
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    /**
+     * Adds a button shown to every viewer. Its view condition is not checked, use
+     * {@link #addViewerButton(MenuButton)} for buttons only some viewers can see.
+     *
+     * @param button The button to add. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void addButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        buttons.add(button);
+        common = null;
+    }
+
+    /**
+     * Removes a button shown to every viewer.
+     *
+     * @param button The button to remove. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void removeButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        buttons.remove(button);
+        common = null;
+    }
+
+    /**
+     * Adds a button that is shown to the viewers that can view it, over the shared buttons.
+     *
+     * @param button The button to add. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void addViewerButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        viewerButtons.add(button);
+    }
+
+    /**
+     * Removes a button that is shown to the viewers that can view it.
+     *
+     * @param button The button to remove. Cannot be null.
+     * @throws NullPointerException if the button is null.
+     */
+    public void removeViewerButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Button cannot be null");
+
+        viewerButtons.remove(button);
+    }
+
+    /**
+     * Adds a personal button, created for each viewer when their menu is first rendered, over the shared buttons.
+     * Use this for buttons with personalised placeholders. The function may return null to show nothing.
+     * The buttons of a viewer are kept until {@link #markPersonalDirty(Player)} is called for the viewer.
+     *
+     * @param function The function creating the button of a viewer. Cannot be null.
+     * @throws NullPointerException if the function is null.
+     */
+    public void addPersonalButton(@NotNull Function<Player, MenuButton> function) {
+        Preconditions.checkNotNull(function, "Function cannot be null");
+
+        personalButtons.add(function);
+    }
+
+    /**
+     * Sets the listings shown on the pages of the menu. Each viewer only sees the listings they can view.
+     *
+     * @param buttons The listings. Cannot be null.
+     * @throws NullPointerException if the buttons are null.
+     */
+    public void setPaginatedButtons(@NotNull Collection<MenuButton> buttons) {
+        Preconditions.checkNotNull(buttons, "Buttons cannot be null");
+
+        this.listings.clear();
+        this.listings.addAll(buttons);
+    }
+
+    /**
+     * Sets the slots the listings are shown in, filled in ascending order.
+     *
+     * @param slots The slots. Cannot be null.
+     * @throws NullPointerException if the slots are null.
+     * @throws IllegalArgumentException if a slot is outside the menu.
+     */
+    public void setPaginatedSlots(int... slots) {
+        Preconditions.checkNotNull(slots, "Slots cannot be null");
+        for (int slot : slots) {
+            Preconditions.checkArgument(slot >= 0 && slot < rows * 9, "Slot must be between 0 and " + (rows * 9 - 1));
+        }
+
+        this.paginatedSlots = Arrays.stream(slots).distinct().sorted().toArray();
+    }
+
+    /**
+     * Sets the slots the listings are shown in from a compiled layout, filled in ascending order.
+     * The slots of the layout outside the menu, such as the lower rows of a column, are left out.
+     *
+     * @param layout The layout of the slots. Cannot be null.
+     * @throws NullPointerException if the layout is null.
+     */
+    public void setPaginatedSlots(@NotNull SlotLayout layout) {
+        Preconditions.checkNotNull(layout, "Layout cannot be null");
+
+        setPaginatedSlots(layout.within(rows * 9).slots());
+    }
+
+    /**
+     * Sets the next page button for the menu.
+     *
+     * @param button The next page button to set. Must not be null.
+     * @throws NullPointerException if the button parameter is null
+     */
+    public void setNextPageButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Next page button cannot be null");
+
+        this.nextPageButton = button;
+    }
+
+    /**
+     * Sets the previous page button for the menu.
+     *
+     * @param button The previous page button to set. Must not be null.
+     * @throws NullPointerException if the button parameter is null.
+     */
+    public void setPreviousPageButton(@NotNull MenuButton button) {
+        Preconditions.checkNotNull(button, "Previous page button cannot be null");
+
+        this.previousPageButton = button;
+    }
+
+    /**
+     * Marks the shared layout as changed, so it is laid out again on the next refresh.
+     */
+    public void markDirty() {
+        common = null;
+    }
+
+    /**
+     * Marks the personal buttons of a viewer as changed, so they are created again on the next refresh.
+     *
+     * @param player The viewer. Cannot be null.
+     * @throws NullPointerException if the player is null.
+     */
+    public void markPersonalDirty(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer != null) viewer.personal = null;
+    }
+
+    /**
+     * Marks the personal buttons of every viewer as changed, so they are created again on the next refresh.
+     */
+    public void markPersonalDirty() {
+        for (Viewer viewer : viewers.values()) viewer.personal = null;
+    }
+
+    /**
+     * Returns the buttons shown to every viewer.
+     * @return An unmodifiable view of the shared buttons.
+     */
+    @NotNull
+    public Set<MenuButton> buttons() {
+        return Collections.unmodifiableSet(buttons);
+    }
+
+    /**
+     * Returns the listings of the menu.
+     * @return An unmodifiable view of the listings.
+     */
+    @NotNull
+    public Set<MenuButton> listings() {
+        return Collections.unmodifiableSet(listings);
+    }
+
+    private static final class Viewer {
+
+        private final Player player;
+        private final Inventory inventory;
+        private final ButtonIndex index;
+        private int page = 1;
+        private MenuButton[] personal;
+
+        private Viewer(@NotNull Player player, @NotNull Inventory inventory, @NotNull ButtonIndex index) {
+            this.player = player;
+            this.inventory = inventory;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable set of menu slots, compiled once into a sorted slot array and a bitmask.
+ * <p>
+ * A layout is parsed from entries, each of which is one of:
+ * <ul>
+ *     <li>a slot, such as {@code "10"};</li>
+ *     <li>a range of slots, such as {@code "10-16"};</li>
+ *     <li>a row or range of rows, such as {@code "row:2"} or {@code "rows:2-5"}, counted from 1;</li>
+ *     <li>a column or range of columns, such as {@code "column:1"} or {@code "columns:2-8"}, counted from 1;</li>
+ *     <li>a grid row of exactly 9 characters, such as {@code "#xxxxxxx#"} or {@code "000111000"}, where every
+ *     character other than {@code #}, {@code .}, {@code 0} and a space selects its slot. Grid rows are laid out from the top
+ *     row in order. An entry of 9 characters is always a grid row, unless it is a range or a selector.</li>
+ * </ul>
+ * Columns span all 6 rows. The menus only keep the slots of a layout that fit in them, see {@link #within(int)}.
+ * Layouts can be passed directly to the menus, and used as a field of a {@link me.joehosten.hypelib.menu.config.ConfigurableMenu},
+ * where they are written as the list of their entries.
+ */
+public final class SlotLayout {
+
+    /**
+     * The number of slots of the largest menu.
+     */
+    public static final int MAX_SLOTS = 54;
+
+    /**
+     * A layout without any slot.
+     */
+    public static final SlotLayout EMPTY = new SlotLayout(0L, List.of());
+
+    private static final int COLUMNS = 9;
+    private static final int ROWS = MAX_SLOTS / COLUMNS;
+
+    private static final Pattern SLOT = Pattern.compile("\\d+");
+    private static final Pattern RANGE = Pattern.compile("(\\d+)\\s*-\\s*(\\d+)");
+    private static final Pattern SELECTOR = Pattern.compile("(row|column|col)s?\\s*:\\s*(\\d+)(?:\\s*-\\s*(\\d+))?");
+
+    private final long mask;
+    private final int[] slots;
+    private final List<String> entries;
+
+    private SlotLayout(long mask, @NotNull List<String> entries) {
+        this.mask = mask;
+        this.slots = toSlots(mask);
+        this.entries = entries;
+    }
+
+    /**
+     * Creates a layout from slots.
+     *
+     * @param slots The slots, between 0 and {@link #MAX_SLOTS} exclusive. Cannot be null.
+     * @return The layout.
+     * @throws NullPointerException     if the slots are null.
+     * @throws IllegalArgumentException if a slot is out of bounds.
+     */
+    @NotNull
+    public static SlotLayout of(int @NotNull ... slots) {
+        Preconditions.checkNotNull(slots, "Slots cannot be null");
+
+        long mask = 0L;
+        for (int slot : slots) mask |= bit(slot);
+
+        return fromMask(mask);
+    }
+
+    /**
+     * Creates a layout from a bitmask, where bit {@code n} selects slot {@code n}.
+     *
+     * @param mask The bitmask. Cannot select slots past {@link #MAX_SLOTS}.
+     * @return The layout.
+     * @throws IllegalArgumentException if the mask selects a slot out of bounds.
+     */
+    @NotNull
+    public static SlotLayout fromMask(long mask) {
+        Preconditions.checkArgument((mask >>> MAX_SLOTS) == 0, "Slots must be between 0 and " + MAX_SLOTS);
+
+        return mask == 0L ? EMPTY : new SlotLayout(mask, toEntries(mask));
+    }
+
+    /**
+     * Creates a layout from an inclusive range of slots, in either order.
+     *
+     * @param from The first slot.
+     * @param to   The last slot.
+     * @return The layout.
+     * @throws IllegalArgumentException if a slot is out of bounds.
+     */
+    @NotNull
+    public static SlotLayout range(int from, int to) {
+        return fromMask(rangeMask(from, to));
+    }
+
+    /**
+     * Creates a layout from a row.
+     *
+     * @param row The row, counted from 1.
+     * @return The layout.
+     * @throws IllegalArgumentException if the row is not between 1 and 6.
+     */
+    @NotNull
+    public static SlotLayout row(int row) {
+        return fromMask(rowMask(row, row));
+    }
+
+    /**
+     * Creates a layout from a column.
+     *
+     * @param column The column, counted from 1.
+     * @return The layout.
+     * @throws IllegalArgumentException if the column is not between 1 and 9.
+     */
+    @NotNull
+    public static SlotLayout column(int column) {
+        return fromMask(columnMask(column, column));
+    }
+
+    /**
+     * Creates a layout from a character grid, selecting the slots holding the given symbol.
+     *
+     * @param symbol The symbol selecting a slot.
+     * @param rows   The rows of the grid, from the top, each of exactly 9 characters. Cannot be null.
+     * @return The layout.
+     * @throws NullPointerException     if the rows are null.
+     * @throws IllegalArgumentException if a row is not 9 characters long, or there are more than 6 rows.
+     */
+    @NotNull
+    public static SlotLayout grid(char symbol, @NotNull String... rows) {
+        Preconditions.checkNotNull(rows, "Rows cannot be null");
+        Preconditions.checkArgument(rows.length <= ROWS, "A grid cannot have more than " + ROWS + " rows");
+
+        long mask = 0L;
+        for (int row = 0; row < rows.length; row++) {
+            Preconditions.checkNotNull(rows[row], "Row cannot be null");
+            Preconditions.checkArgument(rows[row].length() == COLUMNS, "Grid rows must be " + COLUMNS + " characters long: " + rows[row]);
+
+            for (int column = 0; column < COLUMNS; column++) {
+                if (rows[row].charAt(column) == symbol) mask |= 1L << (row * COLUMNS + column);
+            }
+        }
+
+        return fromMask(mask);
+    }
+
+    /**
+     * Parses a layout from entries, as described in the {@link SlotLayout class documentation}.
+     *
+     * @param entries The entries. Cannot be null.
+     * @return The layout.
+     * @throws NullPointerException     if the entries are null.
+     * @throws IllegalArgumentException if an entry is invalid or selects a slot out of bounds.
+     */
+    @NotNull
+    public static SlotLayout parse(@NotNull String... entries) {
+        Preconditions.checkNotNull(entries, "Entries cannot be null");
+
+        return parse(Arrays.asList(entries));
+    }
+
+    /**
+     * Parses a layout from entries, as described in the {@link SlotLayout class documentation}.
+     *
+     * @param entries The entries. Cannot be null.
+     * @return The layout.
+     * @throws NullPointerException     if the entries are null.
+     * @throws IllegalArgumentException if an entry is invalid or selects a slot out of bounds.
+     */
+    @NotNull
+    public static SlotLayout parse(@NotNull List<String> entries) {
+        Preconditions.checkNotNull(entries, "Entries cannot be null");
+
+        long mask = 0L;
+        int gridRow = 0;
+
+        for (String entry : entries) {
+            Preconditions.checkNotNull(entry, "Entry cannot be null");
+
+            String trimmed = entry.trim().toLowerCase(Locale.ROOT);
+
+            if (entry.length() == COLUMNS && !RANGE.matcher(trimmed).matches() && !SELECTOR.matcher(trimmed).matches()) {
+                Preconditions.checkArgument(gridRow < ROWS, "A grid cannot have more than " + ROWS + " rows");
+
+                for (int column = 0; column < COLUMNS; column++) {
+                    char symbol = entry.charAt(column);
+                    if (symbol != '#' && symbol != '.' && symbol != '0' && symbol != ' ') mask |= 1L << (gridRow * COLUMNS + column);
+                }
+
+                gridRow++;
+                continue;
+            }
+
+            if (SLOT.matcher(trimmed).matches()) {
+                mask |= bit(Integer.parseInt(trimmed));
+                continue;
+            }
+
+            Matcher range = RANGE.matcher(trimmed);
+            if (range.matches()) {
+                mask |= rangeMask(Integer.parseInt(range.group(1)), Integer.parseInt(range.group(2)));
+                continue;
+            }
+
+            Matcher selector = SELECTOR.matcher(trimmed);
+            if (selector.matches()) {
+                int from = Integer.parseInt(selector.group(2));
+                int to = selector.group(3) == null ? from : Integer.parseInt(selector.group(3));
+
+                mask |= selector.group(1).equals("row") ? rowMask(from, to) : columnMask(from, to);
+                continue;
+            }
+
+            throw new IllegalArgumentException("Invalid slot layout entry: " + entry);
+        }
+
+        return mask == 0L && entries.isEmpty() ? EMPTY : new SlotLayout(mask, List.copyOf(entries));
+    }
+
+    /**
+     * Returns a layout with the slots of both layouts.
+     *
+     * @param other The other layout. Cannot be null.
+     * @return The union of the layouts.
+     * @throws NullPointerException if the other layout is null.
+     */
+    @NotNull
+    public SlotLayout union(@NotNull SlotLayout other) {
+        Preconditions.checkNotNull(other, "Layout cannot be null");
+
+        return fromMask(mask | other.mask);
+    }
+
+    /**
+     * Returns a layout with the slots of this layout that are not in the other one.
+     *
+     * @param other The other layout. Cannot be null.
+     * @return The difference of the layouts.
+     * @throws NullPointerException if the other layout is null.
+     */
+    @NotNull
+    public SlotLayout without(@NotNull SlotLayout other) {
+        Preconditions.checkNotNull(other, "Layout cannot be null");
+
+        return fromMask(mask & ~other.mask);
+    }
+
+    /**
+     * Returns a layout with the slots of this layout that fit in a menu of the given size.
+     *
+     * @param size The number of slots of the menu, between 0 and {@link #MAX_SLOTS}.
+     * @return The slots of this layout below the size.
+     * @throws IllegalArgumentException if the size is out of bounds.
+     */
+    @NotNull
+    public SlotLayout within(int size) {
+        Preconditions.checkArgument(size >= 0 && size <= MAX_SLOTS, "Size must be between 0 and " + MAX_SLOTS);
+
+        long limit = size == 0 ? 0L : rangeMask(0, size - 1);
+        return (mask & ~limit) == 0L ? this : fromMask(mask & limit);
+    }
+
+    /**
+     * Returns the bitmask of the layout, where bit {@code n} selects slot {@code n}.
+     *
+     * @return The bitmask.
+     */
+    public long mask() {
+        return mask;
+    }
+
+    /**
+     * Returns the slots of the layout, in ascending order.
+     *
+     * @return A copy of the slots.
+     */
+    public int @NotNull [] slots() {
+        return slots.clone();
+    }
+
+    /**
+     * Returns the entries the layout was parsed from, or the ranges of its slots if it was created otherwise.
+     *
+     * @return An immutable list of entries.
+     */
+    @NotNull
+    public List<String> entries() {
+        return entries;
+    }
+
+    /**
+     * Checks whether the layout holds a slot.
+     *
+     * @param slot The slot.
+     * @return Whether the slot is in the layout.
+     */
+    public boolean contains(int slot) {
+        return slot >= 0 && slot < MAX_SLOTS && (mask & (1L << slot)) != 0;
+    }
+
+    /**
+     * Returns the number of slots in the layout.
+     *
+     * @return The number of slots.
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * Checks whether the layout has no slot.
+     *
+     * @return Whether the layout is empty.
+     */
+    public boolean isEmpty() {
+        return mask == 0L;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SlotLayout layout && layout.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+
+    @Override
+    public String toString() {
+        return "SlotLayout" + entries;
+    }
+
+    private static long bit(int slot) {
+        Preconditions.checkArgument(slot >= 0 && slot < MAX_SLOTS, "Slot must be between 0 and " + MAX_SLOTS + ": " + slot);
+
+        return 1L << slot;
+    }
+
+    private static long rangeMask(int from, int to) {
+        int min = Math.min(from, to);
+        int max = Math.max(from, to);
+
+        return (bit(max) << 1) - bit(min);
+    }
+
+    private static long rowMask(int from, int to) {
+        Preconditions.checkArgument(from >= 1 && from <= ROWS && to >= 1 && to <= ROWS, "Rows must be between 1 and " + ROWS);
+
+        return rangeMask((Math.min(from, to) - 1) * COLUMNS, Math.max(from, to) * COLUMNS - 1);
+    }
+
+    private static long columnMask(int from, int to) {
+        Preconditions.checkArgument(from >= 1 && from <= COLUMNS && to >= 1 && to <= COLUMNS, "Columns must be between 1 and " + COLUMNS);
+
+        long mask = 0L;
+        for (int row = 0; row < ROWS; row++) mask |= rangeMask(row * COLUMNS + Math.min(from, to) - 1, row * COLUMNS + Math.max(from, to) - 1);
+
+        return mask;
+    }
+
+    private static int[] toSlots(long mask) {
+        int[] slots = new int[Long.bitCount(mask)];
+
+        long remaining = mask;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+        }
+
+        return slots;
+    }
+
+    private static List<String> toEntries(long mask) {
+        List<String> entries = Lists.newArrayList();
+
+        long remaining = mask;
+        while (remaining != 0L) {
+            int start = Long.numberOfTrailingZeros(remaining);
+            int end = start + Long.numberOfTrailingZeros(~(remaining >>> start)) - 1;
+
+            entries.add(start == end ? String.valueOf(start) : start + "-" + end);
+            remaining &= -1L << (end + 1);
+        }
+
+        return List.copyOf(entries);
+    }
+}
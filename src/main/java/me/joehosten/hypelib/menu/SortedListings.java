@@ -0,0 +1,361 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Listings kept sorted as they change, to be shown through {@link PaginatedMenu#setListingSource(ListingSource)}.
+ * <p>
+ * Every order is kept in its own order statistic tree, so inserting, removing and updating a single value takes
+ * O(log n) per order, and switching between orders needs no sorting. The button of a value is only created once
+ * a page holding it is requested, and kept until the value is updated, so values that are never shown have no
+ * button, and a refresh only rewrites the slots whose listing changed. The ranks returned
+ * by the modifying methods can be passed to {@link PaginatedMenu#reloadListings(int)} to reload only the pages
+ * that moved.
+ * <p>
+ * Values are compared with their order, ties are broken by insertion order. Values must keep their position in
+ * every order while they are listed, change them through {@link #update(Object, Runnable)}. Values are tracked by
+ * identity, so changes to their {@code equals} and {@code hashCode} do not lose them.
+ *
+ * @param <T> The type of the listed values.
+ */
+public final class SortedListings<T> implements ListingSource {
+
+    private final Function<T, MenuButton> function;
+    private final Map<T, Entry<T>> entries = Maps.newIdentityHashMap();
+    private final Map<String, Order<T>> orders = Maps.newLinkedHashMap();
+
+    private Order<T> active;
+    private long sequence;
+
+    /**
+     * Creates sorted listings.
+     *
+     * @param function   The function creating the button of a value, called when a page holding it is requested. Cannot be null.
+     * @param name       The name of the initial order. Cannot be null.
+     * @param comparator The initial order. Cannot be null.
+     * @throws NullPointerException if an argument is null.
+     */
+    public SortedListings(@NotNull Function<T, MenuButton> function, @NotNull String name, @NotNull Comparator<? super T> comparator) {
+        Preconditions.checkNotNull(function, "Function cannot be null");
+
+        this.function = function;
+
+        addOrder(name, comparator);
+        this.active = orders.get(name);
+    }
+
+    /**
+     * Adds an order the listings can be sorted by. The values listed so far are sorted into it once.
+     *
+     * @param name       The name of the order. Cannot be null.
+     * @param comparator The order. Cannot be null.
+     * @throws NullPointerException if an argument is null.
+     * @throws IllegalArgumentException if an order with the name exists already.
+     */
+    public synchronized void addOrder(@NotNull String name, @NotNull Comparator<? super T> comparator) {
+        Preconditions.checkNotNull(name, "Name cannot be null");
+        Preconditions.checkNotNull(comparator, "Comparator cannot be null");
+        Preconditions.checkArgument(!orders.containsKey(name), "Order " + name + " already exists");
+
+        Order<T> order = new Order<>(comparator);
+        for (Entry<T> entry : entries.values()) order.insert(entry);
+
+        orders.put(name, order);
+    }
+
+    /**
+     * Switches the order the listings are shown in. Reload the listings of menus showing them afterwards.
+     *
+     * @param name The name of the order. Cannot be null.
+     * @throws IllegalArgumentException if there is no order with the name.
+     */
+    public synchronized void sortBy(@NotNull String name) {
+        Preconditions.checkNotNull(name, "Name cannot be null");
+
+        Order<T> order = orders.get(name);
+        Preconditions.checkArgument(order != null, "Order " + name + " does not exist");
+
+        this.active = order;
+    }
+
+    /**
+     * Lists a value.
+     *
+     * @param value The value. Cannot be null.
+     * @return The rank of the value in the current order, or -1 if it was listed already.
+     */
+    public synchronized int add(@NotNull T value) {
+        Preconditions.checkNotNull(value, "Value cannot be null");
+
+        if (entries.containsKey(value)) return -1;
+
+        Entry<T> entry = new Entry<>(value, sequence++);
+        entries.put(value, entry);
+
+        int rank = -1;
+        for (Order<T> order : orders.values()) {
+            int inserted = order.insert(entry);
+            if (order == active) rank = inserted;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Removes a listed value.
+     *
+     * @param value The value. Cannot be null.
+     * @return The rank the value had in the current order, or -1 if it was not listed.
+     */
+    public synchronized int remove(@NotNull T value) {
+        Preconditions.checkNotNull(value, "Value cannot be null");
+
+        Entry<T> entry = entries.remove(value);
+        if (entry == null) return -1;
+
+        int rank = -1;
+        for (Order<T> order : orders.values()) {
+            int removed = order.remove(entry);
+            if (order == active) rank = removed;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Updates a listed value, moving it to its new position in every order. Its button is created again
+     * the next time a page holding it is requested.
+     *
+     * @param value  The value. Cannot be null.
+     * @param change The change to the value, which may change its position. Cannot be null.
+     * @return The lowest of the old and new rank of the value in the current order, or -1 if it was not listed.
+     */
+    public synchronized int update(@NotNull T value, @NotNull Runnable change) {
+        Preconditions.checkNotNull(value, "Value cannot be null");
+        Preconditions.checkNotNull(change, "Change cannot be null");
+
+        Entry<T> entry = entries.get(value);
+        if (entry == null) return -1;
+
+        int rank = -1;
+        for (Order<T> order : orders.values()) {
+            int removed = order.remove(entry);
+            if (order == active) rank = removed;
+        }
+
+        change.run();
+        entry.button = null;
+
+        for (Order<T> order : orders.values()) {
+            int inserted = order.insert(entry);
+            if (order == active) rank = Math.min(rank, inserted);
+        }
+
+        return rank;
+    }
+
+    /**
+     * Returns the rank of a value in the current order.
+     *
+     * @param value The value.
+     * @return The rank, or -1 if the value is not listed.
+     */
+    public synchronized int rank(@NotNull T value) {
+        Entry<T> entry = entries.get(value);
+        return entry == null ? -1 : active.rank(entry);
+    }
+
+    @Override
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized @NotNull List<MenuButton> page(int offset, int limit) {
+        int end = Math.min(entries.size(), offset + limit);
+
+        List<MenuButton> page = Lists.newArrayListWithCapacity(Math.max(0, end - offset));
+        for (int rank = offset; rank < end; rank++) {
+            Entry<T> entry = active.select(rank);
+            if (entry.button == null) entry.button = function.apply(entry.value);
+
+            page.add(entry.button);
+        }
+
+        return page;
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long sequence;
+        private MenuButton button;
+
+        private Entry(T value, long sequence) {
+            this.value = value;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * An order statistic treap of the entries in one order.
+     */
+    private static final class Order<T> {
+
+        private final Comparator<Entry<T>> comparator;
+        private Node<T> root;
+
+        private Order(@NotNull Comparator<? super T> comparator) {
+            Comparator<Entry<T>> byValue = (a, b) -> comparator.compare(a.value, b.value);
+            this.comparator = byValue.thenComparingLong(entry -> entry.sequence);
+        }
+
+        int insert(@NotNull Entry<T> entry) {
+            Node<T>[] split = split(root, entry);
+            int rank = size(split[0]);
+
+            root = merge(merge(split[0], new Node<>(entry)), split[1]);
+            return rank;
+        }
+
+        int remove(@NotNull Entry<T> entry) {
+            Node<T>[] split = split(root, entry);
+            int rank = size(split[0]);
+
+            root = merge(split[0], removeFirst(split[1]));
+            return rank;
+        }
+
+        int rank(@NotNull Entry<T> entry) {
+            int rank = 0;
+            Node<T> node = root;
+            while (node != null) {
+                int compared = comparator.compare(entry, node.entry);
+                if (compared == 0) return rank + size(node.left);
+
+                if (compared < 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return -1;
+        }
+
+        @NotNull
+        Entry<T> select(int rank) {
+            Node<T> node = root;
+            while (true) {
+                int left = size(node.left);
+                if (rank == left) return node.entry;
+
+                if (rank < left) {
+                    node = node.left;
+                } else {
+                    rank -= left + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        /**
+         * Splits a tree into the entries ordered before the given entry and the others.
+         */
+        @SuppressWarnings("unchecked")
+        private Node<T>[] split(@Nullable Node<T> node, @NotNull Entry<T> entry) {
+            if (node == null) return new Node[2];
+
+            if (comparator.compare(node.entry, entry) < 0) {
+                Node<T>[] split = split(node.right, entry);
+                node.right = split[0];
+                split[0] = node.update();
+                return split;
+            }
+
+            Node<T>[] split = split(node.left, entry);
+            node.left = split[1];
+            split[1] = node.update();
+            return split;
+        }
+
+        @Nullable
+        private Node<T> merge(@Nullable Node<T> left, @Nullable Node<T> right) {
+            if (left == null) return right;
+            if (right == null) return left;
+
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return left.update();
+            }
+
+            right.left = merge(left, right.left);
+            return right.update();
+        }
+
+        @Nullable
+        private Node<T> removeFirst(@Nullable Node<T> node) {
+            if (node == null) return null;
+            if (node.left == null) return node.right;
+
+            node.left = removeFirst(node.left);
+            return node.update();
+        }
+
+        private static int size(@Nullable Node<?> node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    private static final class Node<T> {
+
+        private final Entry<T> entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(Entry<T> entry) {
+            this.entry = entry;
+        }
+
+        private Node<T> update() {
+            size = 1 + Order.size(left) + Order.size(right);
+            return this;
+        }
+    }
+}
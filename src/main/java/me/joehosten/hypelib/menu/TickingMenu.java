@@ -0,0 +1,66 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A menu that is animated or refreshed periodically by the {@link MenuTicker} while it is open.
+ * Implement this next to {@link InteractiveMenu} instead of scheduling a task per menu.
+ */
+public interface TickingMenu {
+
+    /**
+     * Returns the number of ticks between refreshes of every viewer of the menu.
+     *
+     * @return The refresh interval in ticks, or 0 to never refresh periodically.
+     */
+    default long refreshInterval() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of ticks between animation frames of the menu.
+     *
+     * @return The frame interval in ticks, or 0 if the menu is not animated.
+     */
+    default long frameInterval() {
+        return 0;
+    }
+
+    /**
+     * Called for every viewer of the menu on each animation frame. Changes made here are best shown
+     * by {@link MenuTicker#requestRefresh(InteractiveMenu, Player) requesting} a refresh, which is applied at the end of
+     * the same ticker run.
+     *
+     * @param player The viewer.
+     * @param frame  The number of the frame, counting from 0 since the menu was opened.
+     */
+    default void onFrame(@NotNull Player player, long frame) {
+
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import me.joehosten.hypelib.builder.ItemBuilder;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, compiled form of a {@link YamlItemStack}.
+ * <p>
+ * The name and lore lines without placeholders are parsed once when compiling. An item without any placeholder
+ * is built once, and creating it only copies the prebuilt item. Only the lines with placeholders are replaced and
+ * parsed again when an item is created, with the same result as {@link YamlItemStack.Creator}, as long as every
+ * text and component placeholder matches the placeholder pattern the item was compiled with.
+ */
+public final class ItemTemplate {
+
+    /**
+     * The default placeholder syntax, {@code %name%} or {@code {name}}.
+     */
+    public static final Pattern PLACEHOLDERS = Pattern.compile("%[^%\\s]+%|\\{[^{}\\s]+}");
+
+    private final int slot;
+    private final Material material;
+    private final int amount;
+    private final Integer customModelData;
+
+    private final Line name;
+    private final Line[] lore;
+    private final ItemStack prebuilt;
+
+    private ItemTemplate(@NotNull YamlItemStack stack, @NotNull Pattern placeholders) {
+        Preconditions.checkNotNull(stack.getMaterial(), "Material must not be null");
+
+        this.slot = stack.getSlot() == null ? -1 : stack.getSlot();
+        this.material = stack.getMaterial();
+        this.amount = stack.getAmount() == null ? 1 : stack.getAmount();
+        this.customModelData = stack.getCustomModelData();
+
+        this.name = stack.getDisplayName() == null ? null : Line.compile(stack.getDisplayName(), placeholders);
+
+        List<String> lines = stack.getLore();
+        this.lore = lines == null ? new Line[0] : lines.stream().map(line -> Line.compile(line, placeholders)).toArray(Line[]::new);
+
+        boolean dynamic = name != null && name.isDynamic();
+        for (Line line : lore) dynamic |= line.isDynamic();
+
+        this.prebuilt = dynamic ? null : build(Map.of(), Map.of());
+    }
+
+    /**
+     * Compiles an item with the {@link #PLACEHOLDERS default placeholder syntax}.
+     *
+     * @param stack The item to compile. Cannot be null.
+     * @return The compiled item.
+     * @throws NullPointerException if the item or its material is null.
+     */
+    @NotNull
+    public static ItemTemplate compile(@NotNull YamlItemStack stack) {
+        return compile(stack, PLACEHOLDERS);
+    }
+
+    /**
+     * Compiles an item, treating the lines matching the given pattern as lines with placeholders.
+     *
+     * @param stack        The item to compile. Cannot be null.
+     * @param placeholders The pattern matching placeholders. Cannot be null.
+     * @return The compiled item.
+     * @throws NullPointerException if the item, its material or the pattern is null.
+     */
+    @NotNull
+    public static ItemTemplate compile(@NotNull YamlItemStack stack, @NotNull Pattern placeholders) {
+        Preconditions.checkNotNull(stack, "Stack cannot be null");
+        Preconditions.checkNotNull(placeholders, "Placeholders cannot be null");
+
+        return new ItemTemplate(stack, placeholders);
+    }
+
+    /**
+     * Creates the item without replacing placeholders.
+     *
+     * @return A new item.
+     */
+    @NotNull
+    public ItemStack create() {
+        return create(Map.of(), Map.of());
+    }
+
+    /**
+     * Creates the item, replacing placeholders in the lines that have them.
+     *
+     * @param text       The placeholders replaced before parsing. Cannot be null.
+     * @param components The placeholders replaced with components after parsing. Cannot be null.
+     * @return A new item.
+     * @throws NullPointerException if a map is null.
+     */
+    @NotNull
+    public ItemStack create(@NotNull Map<String, String> text, @NotNull Map<String, Component> components) {
+        Preconditions.checkNotNull(text, "Text placeholders cannot be null");
+        Preconditions.checkNotNull(components, "Component placeholders cannot be null");
+
+        if (prebuilt != null) return prebuilt.clone();
+
+        return build(text, components);
+    }
+
+    @NotNull
+    private ItemStack build(@NotNull Map<String, String> text, @NotNull Map<String, Component> components) {
+        ItemBuilder builder = new ItemBuilder(material, amount);
+
+        if (name != null) builder.setName(name.fill(text, components));
+
+        if (lore.length > 0) {
+            List<Component> lines = Lists.newArrayListWithCapacity(lore.length);
+            for (Line line : lore) lines.add(line.fill(text, components));
+
+            builder.setLore(lines);
+        }
+
+        if (customModelData != null) builder.setCustomModelData(customModelData);
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the slot of the item.
+     *
+     * @return The slot, or -1 if the item has no slot.
+     */
+    public int slot() {
+        return slot;
+    }
+
+    /**
+     * Checks whether the item has lines with placeholders, and so is built again for every creation.
+     *
+     * @return Whether the item has placeholders.
+     */
+    public boolean isDynamic() {
+        return prebuilt == null;
+    }
+
+    /**
+     * A name or lore line, parsed once unless it contains placeholders.
+     *
+     * @param raw    The raw line.
+     * @param parsed The parsed line, or null if it contains placeholders.
+     */
+    private record Line(String raw, @Nullable Component parsed) {
+
+        static Line compile(@NotNull String raw, @NotNull Pattern placeholders) {
+            if (placeholders.matcher(raw).find()) return new Line(raw, null);
+
+            return new Line(raw, ItemBuilder.MINIMESSAGE.deserialize(raw));
+        }
+
+        boolean isDynamic() {
+            return parsed == null;
+        }
+
+        @NotNull
+        Component fill(@NotNull Map<String, String> text, @NotNull Map<String, Component> components) {
+            if (parsed != null) return parsed;
+
+            String line = raw;
+            for (Map.Entry<String, String> entry : text.entrySet()) {
+                line = line.replace(entry.getKey(), entry.getValue());
+            }
+
+            Component component = ItemBuilder.MINIMESSAGE.deserialize(line);
+            for (Map.Entry<String, Component> entry : components.entrySet()) {
+                component = component.replaceText(TextReplacementConfig.builder().match(entry.getKey()).replacement(entry.getValue()).build());
+            }
+
+            return component;
+        }
+    }
+}
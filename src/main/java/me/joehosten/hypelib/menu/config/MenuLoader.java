@@ -29,20 +29,28 @@ import com.google.common.base.Preconditions;
 import de.exlll.configlib.NameFormatters;
 import de.exlll.configlib.YamlConfigurationProperties;
 import de.exlll.configlib.YamlConfigurationStore;
+import me.joehosten.hypelib.menu.SlotLayout;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Load {@link ConfigurableMenu} instances from the 'menus' directory.
+ * The configuration store of each menu class is cached. {@link #loadMenu} parses a new instance on every call,
+ * while {@link #loadSharedMenu} caches the parsed menu of each file and only parses it again once the file changed.
  */
 public class MenuLoader {
 
     private final File directory;
     private final PropertiesProcessor processor;
 
+    private final Map<Class<?>, YamlConfigurationStore<?>> stores = new ConcurrentHashMap<>();
+    private final Map<Key, Cached> menus = new ConcurrentHashMap<>();
+
     /**
      * Create a new instance of {@link MenuLoader}.
      * @param plugin The plugin instance. Cannot be null.
@@ -67,6 +75,7 @@ public class MenuLoader {
 
     /**
      * Load a menu from the menus' directory.
+     * Every call parses the file into a new instance, which the caller is free to modify.
      * @param name The name of the menu file.
      * @param clazz The class of the menu.
      * @return The loaded menu.
@@ -74,25 +83,103 @@ public class MenuLoader {
      */
     @NotNull
     public <T extends ConfigurableMenu> T loadMenu(@NotNull String name, @NotNull Class<T> clazz) {
-        File file = new File(directory, name + (name.endsWith(".yml") ? "" : ".yml"));
+        Preconditions.checkNotNull(name, "'name' cannot be null.");
+        Preconditions.checkNotNull(clazz, "'clazz' cannot be null.");
 
-        YamlConfigurationProperties.Builder<?> builder = YamlConfigurationProperties.newBuilder();
-        builder.setNameFormatter(NameFormatters.LOWER_KEBAB_CASE).inputNulls(true);
+        return store(clazz).update(file(name).toPath());
+    }
 
-        if (processor != null) processor.process(builder);
+    /**
+     * Load a menu from the menus' directory, sharing the parsed instance between calls.
+     * The parsed menu is cached per file, and returned again until the modification time or the length of the file
+     * changed or the menu is {@link #reload() reloaded}. Callers share the returned instance, so they must not modify it.
+     * @param name The name of the menu file.
+     * @param clazz The class of the menu.
+     * @return The shared loaded menu.
+     * @param <T> The type of the menu.
+     */
+    @NotNull
+    public <T extends ConfigurableMenu> T loadSharedMenu(@NotNull String name, @NotNull Class<T> clazz) {
+        Preconditions.checkNotNull(name, "'name' cannot be null.");
+        Preconditions.checkNotNull(clazz, "'clazz' cannot be null.");
 
-        if (clazz.isAnnotationPresent(Header.class)) {
-            Header header = clazz.getAnnotation(Header.class);
-            builder.header(header.value());
-        }
+        File file = file(name);
+        Key key = new Key(file, clazz);
 
-        if (clazz.isAnnotationPresent(Footer.class)) {
-            Footer footer = clazz.getAnnotation(Footer.class);
-            builder.footer(footer.value());
-        }
+        Cached cached = menus.get(key);
+        if (cached != null && cached.isFresh(file)) return clazz.cast(cached.menu());
+
+        Cached loaded = menus.compute(key, (ignored, current) -> {
+            if (current != null && current.isFresh(file)) return current;
+
+            T menu = store(clazz).update(file.toPath());
+            return new Cached(menu, file.lastModified(), file.length());
+        });
+
+        return clazz.cast(loaded.menu());
+    }
+
+    /**
+     * Drops every cached menu, so the next {@link #loadSharedMenu} reads its file again.
+     */
+    public void reload() {
+        menus.clear();
+    }
+
+    /**
+     * Drops the cached menu of a file, so the next {@link #loadSharedMenu} reads it again.
+     * @param name The name of the menu file.
+     */
+    public void reload(@NotNull String name) {
+        Preconditions.checkNotNull(name, "'name' cannot be null.");
 
-        YamlConfigurationStore<T> store = new YamlConfigurationStore<>(clazz, builder.build());
-        return store.update(file.toPath());
+        File file = file(name);
+        menus.keySet().removeIf(key -> key.file().equals(file));
+    }
+
+    @NotNull
+    private File file(@NotNull String name) {
+        return new File(directory, name + (name.endsWith(".yml") ? "" : ".yml"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private <T extends ConfigurableMenu> YamlConfigurationStore<T> store(@NotNull Class<T> clazz) {
+        return (YamlConfigurationStore<T>) stores.computeIfAbsent(clazz, ignored -> {
+            YamlConfigurationProperties.Builder<?> builder = YamlConfigurationProperties.newBuilder();
+            builder.setNameFormatter(NameFormatters.LOWER_KEBAB_CASE).inputNulls(true);
+            builder.addSerializer(SlotLayout.class, new SlotLayoutSerializer());
+
+            if (processor != null) processor.process(builder);
+
+            if (clazz.isAnnotationPresent(Header.class)) {
+                Header header = clazz.getAnnotation(Header.class);
+                builder.header(header.value());
+            }
+
+            if (clazz.isAnnotationPresent(Footer.class)) {
+                Footer footer = clazz.getAnnotation(Footer.class);
+                builder.footer(footer.value());
+            }
+
+            return new YamlConfigurationStore<>(clazz, builder.build());
+        });
+    }
+
+    private record Key(File file, Class<?> clazz) {
+    }
+
+    private record Cached(ConfigurableMenu menu, long modified, long length) {
+
+        /**
+         * Whether the file is unchanged since the menu was parsed. The length is compared as well, as an edit made
+         * within the modification time resolution of the file system right after the file was written keeps its time.
+         * @param file The file of the menu.
+         * @return true if the cached menu is still fresh.
+         */
+        boolean isFresh(@NotNull File file) {
+            return modified != 0L && modified == file.lastModified() && length == file.length();
+        }
     }
 
 }
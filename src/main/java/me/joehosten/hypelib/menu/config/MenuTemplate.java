@@ -0,0 +1,228 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import de.exlll.configlib.Configuration;
+import me.joehosten.hypelib.util.MiniMessageUtil;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, compiled form of a {@link ConfigurableMenu}, built once per loaded menu.
+ * <p>
+ * The title is parsed once, and every {@link YamlItemStack} of the menu, whether a field, an element of a
+ * collection field, a value of a map field or a field of a nested configuration object, is compiled into an
+ * {@link ItemTemplate} addressed by its name and by its slot. Opening a menu then only creates the items,
+ * filling in the lines with placeholders.
+ */
+public final class MenuTemplate {
+
+    private static final Map<ConfigurableMenu, MenuTemplate> COMPILED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Component title;
+    private final int rows;
+    private final Map<String, ItemTemplate> items;
+    private final ItemTemplate[] slots;
+
+    private MenuTemplate(@NotNull ConfigurableMenu menu, @NotNull Pattern placeholders) {
+        this.title = MiniMessageUtil.translate(menu.title());
+        this.rows = menu.rows();
+
+        Map<String, ItemTemplate> items = Maps.newLinkedHashMap();
+        fields(items, "", menu, placeholders);
+
+        this.items = ImmutableMap.copyOf(items);
+        this.slots = new ItemTemplate[rows * 9];
+
+        for (ItemTemplate item : this.items.values()) {
+            int slot = item.slot();
+            if (slot >= 0 && slot < slots.length && slots[slot] == null) slots[slot] = item;
+        }
+    }
+
+    /**
+     * Returns the template of a menu, compiling it with the {@link ItemTemplate#PLACEHOLDERS default placeholder
+     * syntax} the first time. The template is kept as long as the menu instance is, so menus loaded through
+     * {@link MenuLoader#loadSharedMenu} are compiled once per version of their file.
+     *
+     * @param menu The loaded menu. Cannot be null.
+     * @return The template of the menu.
+     * @throws NullPointerException if the menu is null.
+     */
+    @NotNull
+    public static MenuTemplate of(@NotNull ConfigurableMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        return COMPILED.computeIfAbsent(menu, key -> new MenuTemplate(key, ItemTemplate.PLACEHOLDERS));
+    }
+
+    /**
+     * Compiles a menu, treating the lines matching the given pattern as lines with placeholders.
+     * The result is not cached.
+     *
+     * @param menu         The loaded menu. Cannot be null.
+     * @param placeholders The pattern matching placeholders. Cannot be null.
+     * @return The template of the menu.
+     * @throws NullPointerException if the menu or the pattern is null.
+     */
+    @NotNull
+    public static MenuTemplate compile(@NotNull ConfigurableMenu menu, @NotNull Pattern placeholders) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+        Preconditions.checkNotNull(placeholders, "Placeholders cannot be null");
+
+        return new MenuTemplate(menu, placeholders);
+    }
+
+    private static void fields(@NotNull Map<String, ItemTemplate> items, @NotNull String prefix, @NotNull Object instance, @NotNull Pattern placeholders) {
+        for (Class<?> type = instance.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+
+                collect(items, prefix + field.getName(), read(field, instance), placeholders);
+            }
+        }
+    }
+
+    private static void collect(@NotNull Map<String, ItemTemplate> items, @NotNull String name, @Nullable Object value, @NotNull Pattern placeholders) {
+        if (value instanceof YamlItemStack stack) {
+            if (stack.getMaterial() != null) items.put(name, ItemTemplate.compile(stack, placeholders));
+        } else if (value != null && isConfiguration(value.getClass())) {
+            fields(items, name + ".", value, placeholders);
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) collect(items, name + "[" + i + "]", list.get(i), placeholders);
+        } else if (value instanceof Collection<?> collection) {
+            int i = 0;
+            for (Object element : collection) collect(items, name + "[" + i++ + "]", element, placeholders);
+        } else if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) collect(items, name + "." + entry.getKey(), entry.getValue(), placeholders);
+        }
+    }
+
+    /**
+     * Checks whether a type is a configuration object, as a record or a class annotated with {@link Configuration}
+     * either directly or through a superclass.
+     *
+     * @param type The type.
+     * @return Whether the fields of the type are configuration entries.
+     */
+    private static boolean isConfiguration(@NotNull Class<?> type) {
+        if (type.isRecord()) return true;
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (current.isAnnotationPresent(Configuration.class)) return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Object read(@NotNull Field field, @NotNull Object instance) {
+        try {
+            field.setAccessible(true);
+            return field.get(instance);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the parsed title of the menu.
+     *
+     * @return The title.
+     */
+    @NotNull
+    public Component title() {
+        return title;
+    }
+
+    /**
+     * Returns the amount of rows of the menu.
+     *
+     * @return The rows.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns an item by the name of its field, such as {@code filler}, {@code buttons[2]} or {@code items.close}.
+     * Items of nested configuration objects are named by their path, such as {@code navigation.next}.
+     *
+     * @param name The name of the item.
+     * @return The item, or null if the menu has no such item.
+     */
+    @Nullable
+    public ItemTemplate item(@NotNull String name) {
+        return items.get(name);
+    }
+
+    /**
+     * Returns the item configured at a slot, the first one declared if several share the slot.
+     *
+     * @param slot The slot.
+     * @return The item, or null if no item is configured at the slot.
+     */
+    @Nullable
+    public ItemTemplate at(int slot) {
+        return slot >= 0 && slot < slots.length ? slots[slot] : null;
+    }
+
+    /**
+     * Returns every item of the menu by name, in declaration order.
+     *
+     * @return An immutable map of the items.
+     */
+    @NotNull
+    public Map<String, ItemTemplate> items() {
+        return items;
+    }
+
+    /**
+     * Returns the items that are configured with a slot, in slot order.
+     *
+     * @return An immutable list of the slotted items.
+     */
+    @NotNull
+    public List<ItemTemplate> slotted() {
+        ImmutableList.Builder<ItemTemplate> builder = ImmutableList.builder();
+        for (ItemTemplate item : slots) {
+            if (item != null) builder.add(item);
+        }
+        return builder.build();
+    }
+}
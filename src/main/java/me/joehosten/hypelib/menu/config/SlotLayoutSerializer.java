@@ -0,0 +1,48 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.menu.config;
+
+import de.exlll.configlib.Serializer;
+import me.joehosten.hypelib.menu.SlotLayout;
+
+import java.util.List;
+
+/**
+ * Serializes a {@link SlotLayout} as the list of its entries, so menu configs can declare layout fields directly.
+ * Registered by the {@link MenuLoader}.
+ */
+public class SlotLayoutSerializer implements Serializer<SlotLayout, List<String>> {
+
+    @Override
+    public List<String> serialize(SlotLayout element) {
+        return element.entries();
+    }
+
+    @Override
+    public SlotLayout deserialize(List<String> element) {
+        return SlotLayout.parse(element);
+    }
+}
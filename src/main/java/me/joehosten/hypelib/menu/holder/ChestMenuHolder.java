@@ -28,7 +28,7 @@ package me.joehosten.hypelib.menu.holder;
 import com.google.common.base.Preconditions;
 import me.joehosten.hypelib.menu.ChestMenu;
 import me.joehosten.hypelib.menu.InteractiveMenuHolder;
-import lombok.RequiredArgsConstructor;
+import me.joehosten.hypelib.menu.MenuLifecycle;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
@@ -36,12 +36,18 @@ import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.NotNull;
 
-@RequiredArgsConstructor
 public class ChestMenuHolder implements InteractiveMenuHolder<ChestMenu> {
 
-    private final ChestMenu menu;
+    private ChestMenu menu;
     private Inventory inventory;
 
+    public ChestMenuHolder(@NotNull ChestMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        this.menu = menu;
+        MenuLifecycle.track(this);
+    }
+
     @Override
     public void onOpen(@NotNull Player player, @NotNull InventoryOpenEvent event) {
         Preconditions.checkNotNull(player, "Player cannot be null");
@@ -68,9 +74,31 @@ public class ChestMenuHolder implements InteractiveMenuHolder<ChestMenu> {
 
     @Override
     public @NotNull ChestMenu getMenu() {
+        Preconditions.checkState(menu != null, "Holder is not bound to a menu");
+
         return menu;
     }
 
+    /**
+     * Binds this holder to a menu, when its inventory is taken from the pool.
+     *
+     * @param menu The menu. Cannot be null.
+     * @throws NullPointerException if the menu is null.
+     */
+    public void bind(@NotNull ChestMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        this.menu = menu;
+    }
+
+    /**
+     * Unbinds this holder from its menu when its inventory is pooled, so the pool does not keep the menu alive.
+     * A pooled inventory has no viewers, so an unbound holder receives no events until it is bound again.
+     */
+    public void unbind() {
+        this.menu = null;
+    }
+
     @NotNull
     @Override
     public Inventory getInventory() {
@@ -0,0 +1,110 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package me.joehosten.hypelib.menu.holder;
+
+import com.google.common.base.Preconditions;
+import me.joehosten.hypelib.menu.InteractiveMenuHolder;
+import me.joehosten.hypelib.menu.MenuLifecycle;
+import me.joehosten.hypelib.menu.SharedMenu;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
+import org.jetbrains.annotations.NotNull;
+
+public class SharedMenuHolder implements InteractiveMenuHolder<SharedMenu> {
+
+    private SharedMenu menu;
+    private Inventory inventory;
+
+    public SharedMenuHolder(@NotNull SharedMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        this.menu = menu;
+        MenuLifecycle.track(this);
+    }
+
+    @Override
+    public void onOpen(@NotNull Player player, @NotNull InventoryOpenEvent event) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkNotNull(event, "Event cannot be null");
+
+        menu.onOpen(player, event);
+    }
+
+    @Override
+    public void onClose(@NotNull Player player, @NotNull InventoryCloseEvent event) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkNotNull(event, "Event cannot be null");
+
+        menu.onClose(player, event);
+    }
+
+    @Override
+    public void onClick(@NotNull Player player, @NotNull InventoryClickEvent event) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+        Preconditions.checkNotNull(event, "Event cannot be null");
+
+        menu.onClick(player, event);
+    }
+
+    @Override
+    public @NotNull SharedMenu getMenu() {
+        Preconditions.checkState(menu != null, "Holder is not bound to a menu");
+
+        return menu;
+    }
+
+    /**
+     * Binds this holder to a menu, when its inventory is taken from the pool.
+     *
+     * @param menu The menu. Cannot be null.
+     * @throws NullPointerException if the menu is null.
+     */
+    public void bind(@NotNull SharedMenu menu) {
+        Preconditions.checkNotNull(menu, "Menu cannot be null");
+
+        this.menu = menu;
+    }
+
+    /**
+     * Unbinds this holder from its menu when its inventory is pooled, so the pool does not keep the menu alive.
+     * A pooled inventory has no viewers, so an unbound holder receives no events until it is bound again.
+     */
+    public void unbind() {
+        this.menu = null;
+    }
+
+    @NotNull
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(@NotNull Inventory inventory) {
+        this.inventory = inventory;
+    }
+}
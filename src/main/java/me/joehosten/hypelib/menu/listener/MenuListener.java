@@ -26,41 +26,102 @@
 package me.joehosten.hypelib.menu.listener;
 
 import me.joehosten.hypelib.event.Events;
+import me.joehosten.hypelib.menu.InteractiveMenu;
 import me.joehosten.hypelib.menu.InteractiveMenuHolder;
+import me.joehosten.hypelib.menu.MenuMetrics;
+import me.joehosten.hypelib.menu.MenuTicker;
+import me.joehosten.hypelib.util.Tasks;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * Routes the inventory events of menus to their holders.
+ * <p>
+ * Every route listens to a single event type with its own typed handler. The holder is resolved without taking a
+ * snapshot of block inventories, and events of inventories that are not menus stop there.
+ */
 public class MenuListener {
 
     public MenuListener() {
-        Events.listen(InventoryClickEvent.class, event -> {
-            InventoryHolder holder = event.getInventory().getHolder();
-            if (!(holder instanceof InteractiveMenuHolder<?> menuHolder)) return;
+        route(InventoryClickEvent.class, EventPriority.NORMAL, false, this::onClick);
+        route(InventoryDragEvent.class, EventPriority.NORMAL, false, this::onDrag);
+        route(InventoryOpenEvent.class, EventPriority.NORMAL, false, this::onOpen);
+        route(InventoryOpenEvent.class, EventPriority.MONITOR, true, this::onOpened);
+        route(InventoryCloseEvent.class, EventPriority.NORMAL, false, this::onClose);
+    }
 
-            Player player = (Player) event.getWhoClicked();
+    private void onClick(@NotNull InventoryClickEvent event, @NotNull InteractiveMenuHolder<?> holder) {
+        Player player = (Player) event.getWhoClicked();
+        InteractiveMenu menu = holder.getMenu();
 
-            menuHolder.onClick(player, event);
-        });
+        if (!MenuMetrics.isRecording(menu)) {
+            holder.onClick(player, event);
+            return;
+        }
 
-        Events.listen(InventoryOpenEvent.class, event -> {
-            InventoryHolder holder = event.getInventory().getHolder();
-            if (!(holder instanceof InteractiveMenuHolder<?> menuHolder)) return;
+        long start = System.nanoTime();
+        holder.onClick(player, event);
+        MenuMetrics.clicked(menu, System.nanoTime() - start);
+    }
+
+    private void onDrag(@NotNull InventoryDragEvent event, @NotNull InteractiveMenuHolder<?> holder) {
+        holder.onDrag((Player) event.getWhoClicked(), event);
+    }
+
+    private void onOpen(@NotNull InventoryOpenEvent event, @NotNull InteractiveMenuHolder<?> holder) {
+        holder.onOpen((Player) event.getPlayer(), event);
+    }
 
-            Player player = (Player) event.getPlayer();
+    private void onOpened(@NotNull InventoryOpenEvent event, @NotNull InteractiveMenuHolder<?> holder) {
+        MenuTicker.opened(holder.getMenu(), (Player) event.getPlayer());
+        MenuMetrics.opened(holder.getMenu());
+    }
+
+    private void onClose(@NotNull InventoryCloseEvent event, @NotNull InteractiveMenuHolder<?> holder) {
+        Player player = (Player) event.getPlayer();
+        InteractiveMenu menu = holder.getMenu();
+
+        holder.onClose(player, event);
+
+        MenuTicker.closed(menu, player);
+        MenuMetrics.closed(menu, event.getReason());
+
+        if (MenuTicker.isOpen(menu)) return;
 
-            menuHolder.onOpen(player, event);
+        // The player leaves the viewers after the event, and a close to open a new inventory may reopen this menu.
+        Tasks.run(() -> {
+            if (!MenuTicker.isOpen(menu)) menu.release();
         });
+    }
 
-        Events.listen(InventoryCloseEvent.class, event -> {
-            InventoryHolder holder = event.getInventory().getHolder();
+    /**
+     * Listens to an event type, passing the events of menus to a handler.
+     *
+     * @param type            The event type.
+     * @param priority        The priority of the route.
+     * @param ignoreCancelled Whether cancelled events are skipped.
+     * @param handler         The handler of the events of menus.
+     * @param <T>             The event type.
+     */
+    private <T extends InventoryEvent> void route(@NotNull Class<T> type, @NotNull EventPriority priority, boolean ignoreCancelled, @NotNull Route<T> handler) {
+        Events.listen(type, priority, ignoreCancelled, event -> {
+            InventoryHolder holder = event.getInventory().getHolder(false);
             if (!(holder instanceof InteractiveMenuHolder<?> menuHolder)) return;
 
-            Player player = (Player) event.getPlayer();
-
-            menuHolder.onClose(player, event);
+            handler.handle(event, menuHolder);
         });
     }
+
+    @FunctionalInterface
+    private interface Route<T extends InventoryEvent> {
+
+        void handle(@NotNull T event, @NotNull InteractiveMenuHolder<?> holder);
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.permission;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import me.joehosten.hypelib.event.Events;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches permission decisions per player, used by the tab completion of HypeLib commands and by menus.
+ * Command execution and the command tree sent to players are not cached, as Paper builds the tree before
+ * {@link PlayerCommandSendEvent} is fired, and a revoked permission must stop working at once.
+ * <p>
+ * Decisions are dropped when the command tree of a player is resent (which permission plugins do after recalculating),
+ * when the player changes world or quits, and at the latest after the maximum age.
+ * Permission plugins and other plugins changing permissions can invalidate a player explicitly with {@link #invalidate(Player)}.
+ * <p>
+ * Reads never lock, so the cache can be used from async threads.
+ */
+public final class PermissionCache {
+
+    private static final Map<UUID, Decisions> DECISIONS = Maps.newConcurrentMap();
+
+    private static volatile long maxAge = Duration.ofSeconds(10).toNanos();
+    private static volatile boolean registered = false;
+
+    private PermissionCache() {
+    }
+
+    /**
+     * Starts listening for the events invalidating decisions.
+     * This is called by {@link me.joehosten.hypelib.AluminaPlugin} on enable, decisions are not cached before.
+     */
+    public static synchronized void register() {
+        if (registered) return;
+
+        Events.listen(PlayerCommandSendEvent.class, EventPriority.LOWEST, event -> invalidate(event.getPlayer()));
+        Events.listen(PlayerChangedWorldEvent.class, EventPriority.LOWEST, event -> invalidate(event.getPlayer()));
+        Events.listen(PlayerQuitEvent.class, EventPriority.MONITOR, event -> invalidate(event.getPlayer()));
+
+        registered = true;
+    }
+
+    /**
+     * Checks whether the sender has a permission, using the cached decision for players.
+     *
+     * @param sender     The sender to check.
+     * @param permission The permission to check.
+     * @return Whether the sender has the permission.
+     */
+    public static boolean has(@NotNull CommandSender sender, @NotNull String permission) {
+        Preconditions.checkNotNull(sender, "Sender cannot be null");
+        Preconditions.checkNotNull(permission, "Permission cannot be null");
+
+        if (!registered || !(sender instanceof Player player)) return sender.hasPermission(permission);
+
+        long now = System.nanoTime();
+        UUID uuid = player.getUniqueId();
+
+        Decisions decisions = DECISIONS.get(uuid);
+        if (decisions == null || now - decisions.created > maxAge) {
+            // Racing threads may each start a map, the one losing only loses its own decisions.
+            decisions = new Decisions(now);
+            DECISIONS.put(uuid, decisions);
+        }
+
+        Boolean decision = decisions.values.get(permission);
+        if (decision != null) return decision;
+
+        // Decided outside of any lock, an invalidation meanwhile only drops this decision with its map.
+        boolean result = player.hasPermission(permission);
+        decisions.values.put(permission, result);
+        return result;
+    }
+
+    /**
+     * Drops the cached decisions of a player.
+     *
+     * @param player The player.
+     */
+    public static void invalidate(@NotNull Player player) {
+        Preconditions.checkNotNull(player, "Player cannot be null");
+
+        DECISIONS.remove(player.getUniqueId());
+    }
+
+    /**
+     * Drops the cached decisions of every player.
+     */
+    public static void invalidateAll() {
+        DECISIONS.clear();
+    }
+
+    /**
+     * Sets how long decisions may be cached at most.
+     *
+     * @param age The maximum age of a decision.
+     */
+    public static void setMaxAge(@NotNull Duration age) {
+        Preconditions.checkNotNull(age, "Age cannot be null");
+        Preconditions.checkArgument(!age.isNegative(), "Age cannot be negative");
+
+        maxAge = age.toNanos();
+    }
+
+    /**
+     * The decisions of a single player, replaced as a whole when invalidated.
+     */
+    private static final class Decisions {
+
+        private final long created;
+        private final Map<String, Boolean> values = Maps.newConcurrentMap();
+
+        private Decisions(long created) {
+            this.created = created;
+        }
+    }
+}
@@ -42,6 +42,7 @@ public class FileLoader {
 
     /**
      * Loads a file from the plugin's resources folder.
+     * Safe to call off the main thread, such as from a {@link me.joehosten.hypelib.config.ConfigLoadGroup}.
      *
      * @param plugin   The plugin to load the file from.
      * @param resource The name of the file to load.
@@ -63,8 +64,9 @@ public class FileLoader {
         try (InputStream in = plugin.getResource(resource)) {
             Preconditions.checkNotNull(in, "Plugin Resource " + resource + " does not exist.");
 
-            OutputStream out = new FileOutputStream(resourceFile);
-            ByteStreams.copy(in, out);
+            try (OutputStream out = new FileOutputStream(resourceFile)) {
+                ByteStreams.copy(in, out);
+            }
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to load resource " + resource + ".");
             return null;
@@ -27,8 +27,10 @@
 package me.joehosten.hypelib.util;
 
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class IntList {
@@ -41,7 +43,19 @@ public class IntList {
      * @return the list of integers converted from the input strings
      */
     public static List<Integer> getList(@NotNull List<String> input) {
-        List<Integer> output = Lists.newArrayList();
+        return Lists.newArrayList(Ints.asList(getArray(input)));
+    }
+
+    /**
+     * Converts a list of strings to an array of integers, in the same way as {@link #getList(List)} but without
+     * boxing. For menu slots, prefer a {@link me.joehosten.hypelib.menu.SlotLayout}, which is parsed once.
+     *
+     * @param input the list of strings to convert to integers
+     * @return the array of integers converted from the input strings
+     */
+    public static int[] getArray(@NotNull List<String> input) {
+        int size = 0;
+        int[] output = new int[input.size()];
 
         for (String slot : input) {
             if (slot.contains("-")) {
@@ -53,17 +67,21 @@ public class IntList {
                 int max = Math.max(start, end);
 
                 for (int i = min; i <= max; i++) {
-                    output.add(i);
+                    if (size == output.length) output = Arrays.copyOf(output, Math.max(size * 2, max - i + 1 + size));
+                    output[size++] = i;
                 }
             } else {
                 try {
-                    output.add(Integer.parseInt(slot));
+                    int value = Integer.parseInt(slot);
+
+                    if (size == output.length) output = Arrays.copyOf(output, size * 2 + 1);
+                    output[size++] = value;
                 } catch (NumberFormatException ignored) {
                 }
             }
         }
 
-        return output;
+        return size == output.length ? output : Arrays.copyOf(output, size);
     }
 
 }
@@ -0,0 +1,133 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import me.joehosten.hypelib.event.Events;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A case-insensitive prefix index of the names of online players, maintained from join and quit events.
+ * <p>
+ * Lookups read an immutable {@link SuggestionIndex} snapshot, so they are safe from async tab completion threads.
+ */
+public final class OnlinePlayerIndex {
+
+    private static final Map<String, Player> PLAYERS = Maps.newConcurrentMap();
+
+    private static volatile SuggestionIndex names = SuggestionIndex.empty(false);
+    private static volatile boolean registered = false;
+
+    private OnlinePlayerIndex() {
+    }
+
+    /**
+     * Starts maintaining the index, seeding it with the players that are already online.
+     * This is called by {@link me.joehosten.hypelib.AluminaPlugin} on enable.
+     */
+    public static synchronized void register() {
+        if (registered) return;
+
+        Events.listen(PlayerJoinEvent.class, EventPriority.LOWEST, event -> add(event.getPlayer()));
+        Events.listen(PlayerQuitEvent.class, EventPriority.MONITOR, event -> remove(event.getPlayer()));
+
+        Bukkit.getOnlinePlayers().forEach(OnlinePlayerIndex::add);
+
+        registered = true;
+    }
+
+    /**
+     * Checks whether the index is being maintained.
+     *
+     * @return Whether the index has been registered.
+     */
+    public static boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Returns the names of the online players starting with the input, ignoring case.
+     *
+     * @param input The input to match.
+     * @return The matching names, in alphabetical order.
+     */
+    @NotNull
+    public static List<String> getNamesMatching(@NotNull String input) {
+        Preconditions.checkNotNull(input, "Input cannot be null");
+
+        return names.startingWith(input, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the online players whose name starts with the input, ignoring case.
+     *
+     * @param input The input to match.
+     * @return The matching players, in alphabetical order.
+     */
+    @NotNull
+    public static List<Player> getPlayersMatching(@NotNull String input) {
+        List<Player> players = Lists.newArrayList();
+        for (String name : getNamesMatching(input)) {
+            Player player = PLAYERS.get(name);
+            if (player != null) players.add(player);
+        }
+
+        return players;
+    }
+
+    /**
+     * Returns the online player with the exact name.
+     *
+     * @param name The name of the player.
+     * @return The player, or null if no player with that name is indexed.
+     */
+    @Nullable
+    public static Player getPlayer(@NotNull String name) {
+        return PLAYERS.get(name);
+    }
+
+    private static synchronized void add(@NotNull Player player) {
+        PLAYERS.put(player.getName(), player);
+        names = names.with(player.getName());
+    }
+
+    private static synchronized void remove(@NotNull Player player) {
+        if (!PLAYERS.remove(player.getName(), player)) return;
+
+        names = names.without(player.getName());
+    }
+}
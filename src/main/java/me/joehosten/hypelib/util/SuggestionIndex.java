@@ -0,0 +1,549 @@
+/*
+ *  MIT License
+ *
+ * Copyright (C) 2025 Negative Games
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package me.joehosten.hypelib.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, case-insensitive index of suggestions, used to look up tab completions without scanning every candidate.
+ * <p>
+ * Suggestions are kept in a case-folded prefix trie. Optionally, a trigram index is kept alongside it for substring matching.
+ * Updates return a new index which shares every untouched node with the previous one, so an index can be built once,
+ * updated incrementally, and read from any thread.
+ */
+public final class SuggestionIndex {
+
+    /**
+     * The length of the grams used for substring matching.
+     */
+    private static final int GRAM = 3;
+
+    private static final SuggestionIndex EMPTY = new SuggestionIndex(null, null, 0, false);
+    private static final SuggestionIndex EMPTY_SUBSTRINGS = new SuggestionIndex(null, null, 0, true);
+
+    private final Node names;
+    private final Node grams;
+    private final int size;
+    private final boolean substrings;
+
+    private SuggestionIndex(@Nullable Node names, @Nullable Node grams, int size, boolean substrings) {
+        this.names = names;
+        this.grams = grams;
+        this.size = size;
+        this.substrings = substrings;
+    }
+
+    /**
+     * Returns an empty index.
+     *
+     * @param substrings Whether the index should support substring matching.
+     * @return An empty index.
+     */
+    @NotNull
+    public static SuggestionIndex empty(boolean substrings) {
+        return substrings ? EMPTY_SUBSTRINGS : EMPTY;
+    }
+
+    /**
+     * Creates an index supporting prefix matching only.
+     *
+     * @param values The suggestions to index.
+     * @return The index.
+     */
+    @NotNull
+    public static SuggestionIndex of(@NotNull Collection<String> values) {
+        return of(values, false);
+    }
+
+    /**
+     * Creates an index.
+     *
+     * @param values     The suggestions to index.
+     * @param substrings Whether the index should support substring matching.
+     * @return The index.
+     */
+    @NotNull
+    public static SuggestionIndex of(@NotNull Collection<String> values, boolean substrings) {
+        return empty(substrings).withAll(values);
+    }
+
+    /**
+     * Returns an index which also contains the given suggestion.
+     *
+     * @param value The suggestion to add.
+     * @return The updated index, or this index if it already contains the suggestion.
+     */
+    @NotNull
+    @CheckReturnValue
+    public SuggestionIndex with(@NotNull String value) {
+        Preconditions.checkNotNull(value, "Value cannot be null");
+
+        return withAll(List.of(value));
+    }
+
+    /**
+     * Returns an index which also contains the given suggestions.
+     * Nodes created while adding are modified in place, so building a large index does not copy the trie per suggestion.
+     *
+     * @param values The suggestions to add.
+     * @return The updated index.
+     */
+    @NotNull
+    @CheckReturnValue
+    public SuggestionIndex withAll(@NotNull Collection<String> values) {
+        Preconditions.checkNotNull(values, "Values cannot be null");
+
+        Object owner = new Object();
+        Node names = this.names;
+        Node grams = this.grams;
+        int size = this.size;
+
+        // Postings are merged once per gram, rather than inserted one suggestion at a time.
+        Map<String, List<String>> postings = Maps.newHashMap();
+
+        for (String value : values) {
+            Preconditions.checkNotNull(value, "Value cannot be null");
+
+            String folded = fold(value);
+            Node node = find(names, folded);
+            if (node != null && node.indexOf(value) >= 0) continue;
+
+            boolean known = node != null && node.valueCount > 0;
+
+            names = put(names, folded, 0, value, owner);
+            size++;
+
+            if (!substrings || known) continue;
+
+            for (String gram : grams(folded)) {
+                postings.computeIfAbsent(gram, key -> Lists.newArrayList()).add(folded);
+            }
+        }
+
+        for (Map.Entry<String, List<String>> entry : postings.entrySet()) {
+            List<String> posting = entry.getValue();
+            Collections.sort(posting);
+
+            grams = put(grams, entry.getKey(), 0, posting, owner);
+        }
+
+        return size == this.size ? this : new SuggestionIndex(names, grams, size, substrings);
+    }
+
+    /**
+     * Returns an index which no longer contains the given suggestion.
+     *
+     * @param value The suggestion to remove.
+     * @return The updated index, or this index if it does not contain the suggestion.
+     */
+    @NotNull
+    @CheckReturnValue
+    public SuggestionIndex without(@NotNull String value) {
+        Preconditions.checkNotNull(value, "Value cannot be null");
+
+        String folded = fold(value);
+        Node node = find(names, folded);
+        if (node == null || node.indexOf(value) < 0) return this;
+
+        Object owner = new Object();
+        Node names = remove(this.names, folded, 0, value, owner);
+        Node grams = this.grams;
+
+        Node remaining = find(names, folded);
+        if (substrings && (remaining == null || remaining.valueCount == 0)) {
+            for (String gram : grams(folded)) {
+                grams = remove(grams, gram, 0, folded, owner);
+            }
+        }
+
+        return new SuggestionIndex(names, grams, size - 1, substrings);
+    }
+
+    /**
+     * Checks whether the index contains the exact suggestion.
+     *
+     * @param value The suggestion.
+     * @return Whether the index contains the suggestion.
+     */
+    public boolean contains(@NotNull String value) {
+        Node node = find(names, fold(value));
+        return node != null && node.indexOf(value) >= 0;
+    }
+
+    /**
+     * Returns the amount of suggestions in the index.
+     *
+     * @return The amount of suggestions.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the index supports substring matching.
+     *
+     * @return Whether {@link #containing(String, int)} can be used.
+     */
+    public boolean supportsSubstrings() {
+        return substrings;
+    }
+
+    /**
+     * Returns the suggestions starting with the given input, ignoring case, in alphabetical order.
+     *
+     * @param input The input to match.
+     * @param limit The maximum amount of suggestions to return.
+     * @return The matching suggestions.
+     */
+    @NotNull
+    public List<String> startingWith(@NotNull String input, int limit) {
+        Preconditions.checkNotNull(input, "Input cannot be null");
+
+        List<String> result = Lists.newArrayList();
+        if (limit <= 0) return result;
+
+        collect(find(names, fold(input)), result, limit);
+        return result;
+    }
+
+    /**
+     * Returns the suggestions containing the given input, ignoring case.
+     * Suggestions starting with the input are returned first.
+     *
+     * @param input The input to match.
+     * @param limit The maximum amount of suggestions to return.
+     * @return The matching suggestions.
+     * @throws IllegalStateException if the index does not support substring matching.
+     */
+    @NotNull
+    public List<String> containing(@NotNull String input, int limit) {
+        Preconditions.checkNotNull(input, "Input cannot be null");
+        Preconditions.checkState(substrings, "This index does not support substring matching");
+
+        List<String> result = startingWith(input, limit);
+        if (result.size() >= limit || input.isEmpty()) return result;
+
+        String folded = fold(input);
+        Set<String> seen = Sets.newHashSet();
+        for (String value : result) seen.add(fold(value));
+
+        if (folded.length() < GRAM) {
+            // Every occurrence of a short input starts one of the indexed grams or suffixes.
+            collectPostings(find(grams, folded), folded, seen, result, limit);
+            return result;
+        }
+
+        Node smallest = null;
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            Node posting = find(grams, folded.substring(i, i + GRAM));
+            if (posting == null || posting.valueCount == 0) return result;
+
+            if (smallest == null || posting.valueCount < smallest.valueCount) smallest = posting;
+        }
+
+        for (int i = 0; i < smallest.valueCount && result.size() < limit; i++) {
+            String candidate = smallest.values[i];
+            if (!candidate.contains(folded) || !seen.add(candidate)) continue;
+
+            addOriginals(candidate, result, limit);
+        }
+
+        return result;
+    }
+
+    private void collectPostings(@Nullable Node node, @NotNull String folded, @NotNull Set<String> seen, @NotNull List<String> result, int limit) {
+        if (node == null) return;
+
+        for (int i = 0; i < node.valueCount && result.size() < limit; i++) {
+            String candidate = node.values[i];
+            if (!seen.add(candidate)) continue;
+
+            addOriginals(candidate, result, limit);
+        }
+
+        for (int i = 0; i < node.childCount && result.size() < limit; i++) {
+            collectPostings(node.children[i], folded, seen, result, limit);
+        }
+    }
+
+    private void addOriginals(@NotNull String folded, @NotNull List<String> result, int limit) {
+        Node node = find(names, folded);
+        if (node == null) return;
+
+        for (int i = 0; i < node.valueCount && result.size() < limit; i++) {
+            result.add(node.values[i]);
+        }
+    }
+
+    private static void collect(@Nullable Node node, @NotNull List<String> result, int limit) {
+        if (node == null) return;
+
+        for (int i = 0; i < node.valueCount && result.size() < limit; i++) {
+            result.add(node.values[i]);
+        }
+
+        for (int i = 0; i < node.childCount && result.size() < limit; i++) {
+            collect(node.children[i], result, limit);
+        }
+    }
+
+    @NotNull
+    private static String fold(@NotNull String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns every gram of a folded suggestion, along with its suffixes shorter than a gram,
+     * so that inputs shorter than a gram can still be matched at the end of a suggestion.
+     */
+    @NotNull
+    private static Set<String> grams(@NotNull String folded) {
+        Set<String> grams = Sets.newHashSet();
+
+        int length = folded.length();
+        for (int i = 0; i < length; i++) {
+            grams.add(folded.substring(i, Math.min(length, i + GRAM)));
+        }
+
+        return grams;
+    }
+
+    @Nullable
+    private static Node find(@Nullable Node node, @NotNull String key) {
+        for (int depth = 0; node != null && depth < key.length(); depth++) {
+            node = node.child(key.charAt(depth));
+        }
+
+        return node;
+    }
+
+    @NotNull
+    private static Node put(@Nullable Node node, @NotNull String key, int depth, @NotNull String value, @NotNull Object owner) {
+        return put(node, key, depth, List.of(value), owner);
+    }
+
+    @NotNull
+    private static Node put(@Nullable Node node, @NotNull String key, int depth, @NotNull List<String> sorted, @NotNull Object owner) {
+        Node target = node == null ? new Node(owner) : node.editable(owner);
+
+        if (depth == key.length()) {
+            target.addValues(sorted);
+            return target;
+        }
+
+        char c = key.charAt(depth);
+        Node child = target.child(c);
+        Node updated = put(child, key, depth + 1, sorted, owner);
+        if (updated != child) target.setChild(c, updated);
+
+        return target;
+    }
+
+    @Nullable
+    private static Node remove(@Nullable Node node, @NotNull String key, int depth, @NotNull String value, @NotNull Object owner) {
+        if (node == null) return null;
+
+        Node target;
+        if (depth == key.length()) {
+            if (node.indexOf(value) < 0) return node;
+
+            target = node.editable(owner);
+            target.removeValue(value);
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.child(c);
+            if (child == null) return node;
+
+            Node updated = remove(child, key, depth + 1, value, owner);
+            if (updated == child) return node;
+
+            target = node.editable(owner);
+            target.setChild(c, updated);
+        }
+
+        return target.childCount == 0 && target.valueCount == 0 ? null : target;
+    }
+
+    /**
+     * A trie node. Nodes are only modified by the operation that created them, and are never modified once the
+     * index holding them has been returned.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final String[] NO_VALUES = new String[0];
+
+        private final Object owner;
+
+        private char[] keys;
+        private Node[] children;
+        private int childCount;
+
+        private String[] values;
+        private int valueCount;
+        private boolean sharedValues;
+
+        private Node(@NotNull Object owner) {
+            this.owner = owner;
+            this.keys = NO_KEYS;
+            this.children = NO_CHILDREN;
+            this.values = NO_VALUES;
+        }
+
+        /**
+         * Returns this node if it was created by the given operation, or a copy owned by it otherwise.
+         * The values of a copy are shared until they are modified, so copying a path does not copy large posting lists.
+         */
+        @NotNull
+        private Node editable(@NotNull Object owner) {
+            if (this.owner == owner) return this;
+
+            Node copy = new Node(owner);
+            copy.keys = Arrays.copyOf(keys, childCount);
+            copy.children = Arrays.copyOf(children, childCount);
+            copy.childCount = childCount;
+            copy.values = values;
+            copy.valueCount = valueCount;
+            copy.sharedValues = true;
+            return copy;
+        }
+
+        @Nullable
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private void setChild(char c, @Nullable Node child) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+
+            if (index >= 0) {
+                if (child != null) {
+                    children[index] = child;
+                    return;
+                }
+
+                System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                children[--childCount] = null;
+                return;
+            }
+
+            if (child == null) return;
+
+            int insert = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+
+            System.arraycopy(keys, insert, keys, insert + 1, childCount - insert);
+            System.arraycopy(children, insert, children, insert + 1, childCount - insert);
+            keys[insert] = c;
+            children[insert] = child;
+            childCount++;
+        }
+
+        private int indexOf(@NotNull String value) {
+            return Arrays.binarySearch(values, 0, valueCount, value);
+        }
+
+        /**
+         * Merges sorted values into the sorted values of this node, skipping duplicates.
+         */
+        private void addValues(@NotNull List<String> sorted) {
+            if (sorted.size() == 1) {
+                addValue(sorted.get(0));
+                return;
+            }
+
+            String[] merged = new String[valueCount + sorted.size()];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < valueCount || j < sorted.size()) {
+                String next;
+                if (j >= sorted.size() || (i < valueCount && values[i].compareTo(sorted.get(j)) <= 0)) {
+                    next = values[i++];
+                } else {
+                    next = sorted.get(j++);
+                }
+
+                if (count > 0 && merged[count - 1].equals(next)) continue;
+                merged[count++] = next;
+            }
+
+            values = merged;
+            valueCount = count;
+            sharedValues = false;
+        }
+
+        private void addValue(@NotNull String value) {
+            int index = indexOf(value);
+            if (index >= 0) return;
+
+            int insert = -index - 1;
+            if (sharedValues || valueCount == values.length) {
+                values = Arrays.copyOf(values, valueCount == values.length ? Math.max(1, valueCount * 2) : values.length);
+                sharedValues = false;
+            }
+
+            System.arraycopy(values, insert, values, insert + 1, valueCount - insert);
+            values[insert] = value;
+            valueCount++;
+        }
+
+        private void removeValue(@NotNull String value) {
+            int index = indexOf(value);
+            if (index < 0) return;
+
+            if (sharedValues) {
+                values = Arrays.copyOf(values, values.length);
+                sharedValues = false;
+            }
+
+            System.arraycopy(values, index + 1, values, index, valueCount - index - 1);
+            values[--valueCount] = null;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.util.StringUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.List;
@@ -48,6 +49,8 @@ public class TabCompleteUtil {
      */
     @NotNull
     public List<String> getOnlinePlayersMatching(@NotNull Player sender, @NotNull String input) {
+        if (OnlinePlayerIndex.isRegistered()) return getIndexedPlayersMatching(sender, input, null);
+
         return Bukkit.getOnlinePlayers().stream()
                 .filter(player -> sender.canSee(player) && StringUtil.startsWithIgnoreCase(player.getName(), input))
                 .map(Player::getName)
@@ -63,12 +66,37 @@ public class TabCompleteUtil {
      */
     @NotNull
     public List<String> getOnlinePlayersMatching(@NotNull Player sender, @NotNull String input, @NotNull Predicate<Player> predicate) {
+        if (OnlinePlayerIndex.isRegistered()) return getIndexedPlayersMatching(sender, input, predicate);
+
         return Bukkit.getOnlinePlayers().stream()
                 .filter(player -> sender.canSee(player) && StringUtil.startsWithIgnoreCase(player.getName(), input) && predicate.test(player))
                 .map(Player::getName)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a list of online players matching the input from the {@link OnlinePlayerIndex},
+     * only checking visibility and the predicate for players whose name matches.
+     * @param sender The player sending the tab completion request.
+     * @param input The input to match.
+     * @param predicate The predicate to test the players against, or null.
+     * @return A list of online players matching the input and the predicate.
+     */
+    @NotNull
+    private List<String> getIndexedPlayersMatching(@NotNull Player sender, @NotNull String input, @Nullable Predicate<Player> predicate) {
+        List<String> result = Lists.newArrayList();
+
+        for (String name : OnlinePlayerIndex.getNamesMatching(input)) {
+            Player player = OnlinePlayerIndex.getPlayer(name);
+            if (player == null || !sender.canSee(player)) continue;
+            if (predicate != null && !predicate.test(player)) continue;
+
+            result.add(name);
+        }
+
+        return result;
+    }
+
     /**
      * Get a list of matching strings from a collection.
      * @param input The input to match.
@@ -108,6 +136,42 @@ public class TabCompleteUtil {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a list of matching strings from a {@link SuggestionIndex}, without scanning every candidate.
+     * @param input The input to match.
+     * @param index The index of strings to match against.
+     * @return A list of matching strings from the index.
+     */
+    @NotNull
+    public List<String> getStringsMatching(@NotNull String input, @NotNull SuggestionIndex index) {
+        return index.startingWith(input, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get a limited list of matching strings from a {@link SuggestionIndex}, without scanning every candidate.
+     * @param input The input to match.
+     * @param index The index of strings to match against.
+     * @param limit The maximum amount of strings to return.
+     * @return A list of matching strings from the index.
+     */
+    @NotNull
+    public List<String> getStringsMatching(@NotNull String input, @NotNull SuggestionIndex index, int limit) {
+        return index.startingWith(input, limit);
+    }
+
+    /**
+     * Retrieves a limited list of strings from the given index that contain the argument, strings starting with it first.
+     *
+     * @param index    The index of strings to search through, which must support substring matching.
+     * @param argument The string to compare with the elements in the index.
+     * @param limit    The maximum amount of strings to return.
+     * @return A list of strings similar to the argument.
+     */
+    @NotNull
+    public static List<String> getSimilarStrings(@NotNull SuggestionIndex index, @NotNull String argument, int limit) {
+        return index.containing(argument, limit);
+    }
+
     /**
      * Retrieves a list of strings from the given list that are similar to the argument.
      *